@@ -0,0 +1,131 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.AvailableSeatsResponse;
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Reservation;
+import com.movieticket.entity.ReservedSeat;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.exception.InvalidSeatException;
+import com.movieticket.util.SeatLayout;
+import com.movieticket.util.SeatMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers the CPU-bound parts of booking and availability requests without a
+ * database: seat validation and duplicate checks, availability filtering, and
+ * the reservation to DTO mapper. Showtime listings are projected to DTOs by
+ * the database and have no mapper left to measure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingPathBenchmark {
+
+    // Each benchmark takes only the states whose parameters it reads, so JMH
+    // does not fork identical runs for parameters a benchmark ignores
+
+    @State(Scope.Benchmark)
+    public static class Booking {
+
+        @Param({"1", "10"})
+        private int seatsPerBooking;
+
+        private List<String> requestedSeats;
+        private Reservation reservation;
+
+        @Setup
+        public void setUp() {
+            requestedSeats = SeatLayout.allSeatIds().subList(100, 100 + seatsPerBooking);
+
+            Theater theater = new Theater("AMC Empire 25");
+            theater.setId(UUID.randomUUID());
+            Screen screen = new Screen(theater, "Screen 1");
+            screen.setId(UUID.randomUUID());
+            Movie movie = new Movie("The Matrix");
+            movie.setId(UUID.randomUUID());
+            Showtime showtime = new Showtime(movie, screen, LocalDateTime.of(2030, 1, 1, 19, 0));
+            showtime.setId(UUID.randomUUID());
+
+            reservation = new Reservation(showtime);
+            reservation.onCreate();
+            for (String seatId : requestedSeats) {
+                reservation.getReservedSeats().add(new ReservedSeat(reservation, showtime, seatId));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Occupancy {
+
+        /** Percentage of the showtime already sold. */
+        @Param({"0", "50", "95"})
+        private int percentSold;
+
+        private final UUID showtimeId = UUID.randomUUID();
+        private SeatMap takenSeats;
+
+        @Setup
+        public void setUp() {
+            takenSeats = new SeatMap();
+            int sold = SeatLayout.TOTAL_SEATS * percentSold / 100;
+            for (int i = 0; i < sold; i++) {
+                takenSeats.add(i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class InvalidRequest {
+
+        private final List<String> seatIds = List.of("A1", "A2", "A99");
+    }
+
+    @Benchmark
+    public SeatMap parseSeats_valid(Booking booking) {
+        return BookingService.parseSeats(booking.requestedSeats);
+    }
+
+    @Benchmark
+    public Object parseSeats_invalid(InvalidRequest request) {
+        try {
+            return BookingService.parseSeats(request.seatIds);
+        } catch (InvalidSeatException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean conflictCheck(Booking booking, Occupancy occupancy) {
+        return occupancy.takenSeats.intersects(SeatMap.of(booking.requestedSeats));
+    }
+
+    @Benchmark
+    public AvailableSeatsResponse availableSeats(Occupancy occupancy) {
+        return ShowtimeService.toAvailableSeats(occupancy.showtimeId, occupancy.takenSeats);
+    }
+
+    @Benchmark
+    public ReservationDto reservationToDto(Booking booking) {
+        return ReservationWriter.toDto(booking.reservation);
+    }
+}
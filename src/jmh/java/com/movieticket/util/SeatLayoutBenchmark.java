@@ -0,0 +1,53 @@
+package com.movieticket.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatLayoutBenchmark {
+
+    private final List<String> validSeats = List.of("A0", "B15", "M10", "Z20", "K7");
+    private final List<String> invalidSeats = List.of("A99", "ZZ1", "a5", "A-1", "AB");
+
+    @Benchmark
+    public void isValidSeatId_valid(Blackhole bh) {
+        for (String seatId : validSeats) {
+            bh.consume(SeatLayout.isValidSeatId(seatId));
+        }
+    }
+
+    @Benchmark
+    public void isValidSeatId_invalid(Blackhole bh) {
+        for (String seatId : invalidSeats) {
+            bh.consume(SeatLayout.isValidSeatId(seatId));
+        }
+    }
+
+    @Benchmark
+    public void indexOf_valid(Blackhole bh) {
+        for (String seatId : validSeats) {
+            bh.consume(SeatLayout.indexOf(seatId));
+        }
+    }
+
+    @Benchmark
+    public List<String> allSeatIds() {
+        return SeatLayout.allSeatIds();
+    }
+}
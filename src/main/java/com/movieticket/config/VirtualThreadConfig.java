@@ -0,0 +1,69 @@
+package com.movieticket.config;
+
+import com.movieticket.util.GatedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Support for serving requests on virtual threads, switched on with
+ * {@code spring.threads.virtual.enabled}. With virtual threads the number of
+ * concurrent requests is no longer capped by a Tomcat pool, so the connection
+ * pool is put behind a {@link GatedDataSource} with one permit per pooled
+ * connection, and pinned carrier threads are recorded from JFR.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // What Hikari resolves an unset maximum-pool-size to when the pool starts
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    static BeanPostProcessor jdbcAdmissionGate(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getObject();
+                Timer wait = Timer.builder("jdbc.gate.wait")
+                        .description("Time spent waiting for a database connection permit")
+                        .publishPercentileHistogram()
+                        .register(registry);
+                int poolSize = hikari.getMaximumPoolSize() > 0
+                        ? hikari.getMaximumPoolSize()
+                        : HIKARI_DEFAULT_POOL_SIZE;
+                GatedDataSource gated = new GatedDataSource(hikari, poolSize,
+                        Duration.ofMillis(hikari.getConnectionTimeout()),
+                        nanos -> wait.record(nanos, TimeUnit.NANOSECONDS));
+                Gauge.builder("jdbc.gate.waiting", gated, GatedDataSource::waiting)
+                        .description("Callers parked waiting for a database connection permit")
+                        .register(registry);
+                Gauge.builder("jdbc.gate.available", gated, GatedDataSource::availablePermits)
+                        .description("Database connection permits not in use")
+                        .register(registry);
+                return gated;
+            }
+        };
+    }
+
+    @Bean
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${movieticket.virtual-threads.pinned-threshold:PT0.02S}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+}
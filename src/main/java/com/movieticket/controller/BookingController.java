@@ -1,35 +1,112 @@
 package com.movieticket.controller;
 
 import com.movieticket.dto.BookingRequest;
+import com.movieticket.dto.BookingTicketDto;
+import com.movieticket.dto.BulkCancellationRequest;
+import com.movieticket.dto.CancellationJobDto;
 import com.movieticket.dto.ReservationDto;
+import com.movieticket.exception.InvalidIdempotencyKeyException;
+import com.movieticket.service.BookingSequencer;
 import com.movieticket.service.BookingService;
+import com.movieticket.service.BulkCancellationService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final int MAX_TICKET_WAIT_SECONDS = 30;
+
     private final BookingService bookingService;
+    private final BookingSequencer bookingSequencer;
+    private final BulkCancellationService bulkCancellationService;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService,
+                             BookingSequencer bookingSequencer,
+                             BulkCancellationService bulkCancellationService) {
         this.bookingService = bookingService;
+        this.bookingSequencer = bookingSequencer;
+        this.bulkCancellationService = bulkCancellationService;
     }
 
+    /**
+     * Books synchronously, or with {@code Prefer: respond-async} queues the
+     * booking and answers 202 with a ticket to poll. A synchronous booking
+     * retried with the same {@code Idempotency-Key} returns the original
+     * reservation. Queued bookings are not deduplicated, so a key sent with
+     * {@code respond-async} is refused rather than ignored.
+     */
     @PostMapping
-    public ResponseEntity<ReservationDto> createBooking(
-            @Valid @RequestBody BookingRequest request) {
-        ReservationDto reservation = bookingService.createBooking(request);
+    public ResponseEntity<?> createBooking(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(name = "Prefer", required = false) String prefer,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (prefersAsync(prefer)) {
+            if (idempotencyKey != null) {
+                throw new InvalidIdempotencyKeyException(
+                        "Idempotency-Key is not supported with Prefer: respond-async");
+            }
+            BookingTicketDto ticket = bookingSequencer.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/bookings/tickets/" + ticket.ticketId()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(ticket);
+        }
+        ReservationDto reservation = bookingService.createBooking(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
     }
 
+    /**
+     * State of an asynchronous booking. With {@code wait}, a pending ticket is
+     * answered once it completes or the wait (at most 30 seconds) runs out.
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public CompletableFuture<ResponseEntity<BookingTicketDto>> getTicket(
+            @PathVariable UUID ticketId,
+            @RequestParam(defaultValue = "0") int wait) {
+        Duration timeout = Duration.ofSeconds(Math.clamp(wait, 0, MAX_TICKET_WAIT_SECONDS));
+        return bookingSequencer.getTicket(ticketId, timeout)
+                .thenApply(ticket -> ResponseEntity.ok()
+                        .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                        .body(ticket));
+    }
+
     @DeleteMapping("/{confirmationId}")
     public ResponseEntity<Void> cancelBooking(@PathVariable UUID confirmationId) {
         bookingService.cancelBooking(confirmationId);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/cancellations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CancellationJobDto> cancelInBulk(@RequestBody BulkCancellationRequest request) {
+        CancellationJobDto job = bulkCancellationService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/cancellations/" + job.jobId()))
+                .body(job);
+    }
+
+    @GetMapping("/cancellations/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CancellationJobDto> getCancellationJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(bulkCancellationService.getJob(jobId));
+    }
+
+    private static boolean prefersAsync(String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(","))
+                .map(p -> p.split(";", 2)[0].strip())
+                .anyMatch(RESPOND_ASYNC::equalsIgnoreCase);
+    }
 }
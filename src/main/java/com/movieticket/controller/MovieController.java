@@ -1,17 +1,24 @@
 package com.movieticket.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.movieticket.dto.CreateMovieRequest;
+import com.movieticket.dto.CursorPage;
 import com.movieticket.dto.MovieDto;
 import com.movieticket.dto.ShowtimeDto;
 import com.movieticket.dto.UpdateMovieRequest;
 import com.movieticket.service.MovieService;
 import com.movieticket.service.ShowtimeService;
+import com.movieticket.util.NdjsonWriter;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,16 +28,35 @@ public class MovieController {
 
     private final MovieService movieService;
     private final ShowtimeService showtimeService;
+    private final ObjectMapper objectMapper;
 
-    public MovieController(MovieService movieService, ShowtimeService showtimeService) {
+    public MovieController(MovieService movieService, ShowtimeService showtimeService,
+                           ObjectMapper objectMapper) {
         this.movieService = movieService;
         this.showtimeService = showtimeService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
     public ResponseEntity<List<MovieDto>> searchMovies(
-            @RequestParam(required = false) String title) {
-        return ResponseEntity.ok(movieService.searchMovies(title));
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(movieService.searchMovies(title, prefix, limit));
+    }
+
+    @GetMapping(params = "pageSize")
+    public ResponseEntity<CursorPage<MovieDto>> getMoviePage(
+            @RequestParam Integer pageSize,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(movieService.getMoviePage(cursor, pageSize));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMovies() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.streaming(objectMapper, movieService::streamMovies));
     }
 
     @PostMapping
@@ -58,7 +84,11 @@ public class MovieController {
     }
 
     @GetMapping("/{movieId}/showtimes")
-    public ResponseEntity<List<ShowtimeDto>> getShowtimes(@PathVariable UUID movieId) {
-        return ResponseEntity.ok(showtimeService.getShowtimesByMovie(movieId));
+    public ResponseEntity<List<ShowtimeDto>> getShowtimes(
+            @PathVariable UUID movieId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(showtimeService.getShowtimesByMovie(movieId, from, to, limit));
     }
 }
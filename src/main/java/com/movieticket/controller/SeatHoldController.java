@@ -0,0 +1,44 @@
+package com.movieticket.controller;
+
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.dto.SeatHoldDto;
+import com.movieticket.dto.SeatHoldRequest;
+import com.movieticket.service.BookingService;
+import com.movieticket.service.SeatHoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/holds")
+public class SeatHoldController {
+
+    private final SeatHoldService seatHoldService;
+    private final BookingService bookingService;
+
+    public SeatHoldController(SeatHoldService seatHoldService, BookingService bookingService) {
+        this.seatHoldService = seatHoldService;
+        this.bookingService = bookingService;
+    }
+
+    @PostMapping
+    public ResponseEntity<SeatHoldDto> holdSeats(@Valid @RequestBody SeatHoldRequest request) {
+        SeatHoldDto hold = seatHoldService.hold(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<ReservationDto> confirmHold(@PathVariable UUID holdId) {
+        ReservationDto reservation = bookingService.confirmHold(holdId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID holdId) {
+        seatHoldService.release(holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,28 +1,136 @@
 package com.movieticket.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.dto.AvailableSeatsBitmapResponse;
+import com.movieticket.dto.AvailableSeatsRangesResponse;
 import com.movieticket.dto.AvailableSeatsResponse;
+import com.movieticket.dto.CursorPage;
+import com.movieticket.dto.ShowtimeAvailabilityDto;
+import com.movieticket.dto.ShowtimeDto;
+import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.service.SeatInventory;
 import com.movieticket.service.ShowtimeService;
+import com.movieticket.util.NdjsonWriter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.BiFunction;
 
 @RestController
 @RequestMapping("/api/showtimes")
 public class ShowtimeController {
 
+    public static final String SEATS_BITMAP_JSON_VALUE = "application/vnd.movieticket.seats-bitmap+json";
+    public static final String SEATS_RANGES_JSON_VALUE = "application/vnd.movieticket.seats-ranges+json";
+
     private final ShowtimeService showtimeService;
+    private final ObjectMapper objectMapper;
 
-    public ShowtimeController(ShowtimeService showtimeService) {
+    public ShowtimeController(ShowtimeService showtimeService, ObjectMapper objectMapper) {
         this.showtimeService = showtimeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public ResponseEntity<CursorPage<ShowtimeDto>> getShowtimePage(
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(showtimeService.getShowtimePage(cursor, pageSize));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamShowtimes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.streaming(objectMapper, showtimeService::streamShowtimes));
+    }
+
+    /**
+     * Available seat counts, and optionally bitmaps, for many showtimes. These
+     * reflect committed bookings only, so seats on hold are counted as
+     * available here while {@code /{showtimeId}/seats} shows them taken.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<ShowtimeAvailabilityDto>> getAvailability(
+            @RequestParam(required = false) List<UUID> ids,
+            @RequestParam(required = false) UUID movieId,
+            @RequestParam(required = false) UUID theaterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean bitmap) {
+        return ResponseEntity.ok(showtimeService.getAvailability(ids, movieId, theaterId, date, bitmap));
     }
 
     @GetMapping("/{showtimeId}/seats")
     public ResponseEntity<AvailableSeatsResponse> getAvailableSeats(
-            @PathVariable UUID showtimeId) {
-        return ResponseEntity.ok(showtimeService.getAvailableSeats(showtimeId));
+            @PathVariable UUID showtimeId, WebRequest request) {
+        return conditionalSeats(showtimeId, request, null, showtimeService::toAvailableSeats);
+    }
+
+    @GetMapping(path = "/{showtimeId}/seats", produces = SEATS_BITMAP_JSON_VALUE)
+    public ResponseEntity<AvailableSeatsBitmapResponse> getAvailableSeatsBitmap(
+            @PathVariable UUID showtimeId, WebRequest request) {
+        return conditionalSeats(showtimeId, request, "bitmap", showtimeService::toAvailableSeatsBitmap);
+    }
+
+    @GetMapping(path = "/{showtimeId}/seats", produces = SEATS_RANGES_JSON_VALUE)
+    public ResponseEntity<AvailableSeatsRangesResponse> getAvailableSeatsRanges(
+            @PathVariable UUID showtimeId, WebRequest request) {
+        return conditionalSeats(showtimeId, request, "ranges", showtimeService::toAvailableSeatsRanges);
+    }
+
+    @GetMapping(path = "/{showtimeId}/seats", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getAvailableSeatsOctets(
+            @PathVariable UUID showtimeId, WebRequest request) {
+        try {
+            return conditionalSeats(showtimeId, request, "octets",
+                    (id, snapshot) -> showtimeService.toAvailableSeatsOctets(snapshot));
+        } catch (ShowtimeNotFoundException e) {
+            // An ErrorResponse body cannot be written as octet-stream, so answer with a bare status
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping(path = "/{showtimeId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailableSeats(@PathVariable UUID showtimeId) {
+        try {
+            return showtimeService.streamAvailableSeats(showtimeId);
+        } catch (ShowtimeNotFoundException e) {
+            // An ErrorResponse body cannot be written as text/event-stream, so answer with a bare status
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Answers an If-None-Match for the current occupancy version with a 304
+     * before the body is built, otherwise renders the snapshot.
+     */
+    private <T> ResponseEntity<T> conditionalSeats(UUID showtimeId, WebRequest request, String representation,
+                                                   BiFunction<UUID, SeatInventory.Snapshot, T> render) {
+        SeatInventory.Snapshot snapshot = showtimeService.getSeatSnapshot(showtimeId);
+        String eTag = showtimeService.seatsETag(snapshot, representation);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(eTag)
+                .body(render.apply(showtimeId, snapshot));
     }
 }
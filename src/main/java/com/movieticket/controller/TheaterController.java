@@ -1,15 +1,25 @@
 package com.movieticket.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.dto.CursorPage;
 import com.movieticket.dto.ShowtimeDto;
 import com.movieticket.dto.TheaterDto;
 import com.movieticket.service.ShowtimeService;
 import com.movieticket.service.TheaterService;
+import com.movieticket.util.NdjsonWriter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,10 +29,13 @@ public class TheaterController {
 
     private final TheaterService theaterService;
     private final ShowtimeService showtimeService;
+    private final ObjectMapper objectMapper;
 
-    public TheaterController(TheaterService theaterService, ShowtimeService showtimeService) {
+    public TheaterController(TheaterService theaterService, ShowtimeService showtimeService,
+                             ObjectMapper objectMapper) {
         this.theaterService = theaterService;
         this.showtimeService = showtimeService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -30,8 +43,33 @@ public class TheaterController {
         return ResponseEntity.ok(theaterService.getAllTheaters());
     }
 
+    @GetMapping(params = "pageSize")
+    public ResponseEntity<CursorPage<TheaterDto>> getTheaterPage(
+            @RequestParam Integer pageSize,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(theaterService.getTheaterPage(cursor, pageSize));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTheaters() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonWriter.streaming(objectMapper, theaterService::streamTheaters));
+    }
+
+    @PostMapping("/cache/evict")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> evictCatalogCache() {
+        theaterService.evictCatalogCache();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{theaterId}/showtimes")
-    public ResponseEntity<List<ShowtimeDto>> getShowtimes(@PathVariable UUID theaterId) {
-        return ResponseEntity.ok(showtimeService.getShowtimesByTheater(theaterId));
+    public ResponseEntity<List<ShowtimeDto>> getShowtimes(
+            @PathVariable UUID theaterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(showtimeService.getShowtimesByTheater(theaterId, from, to, limit));
     }
 }
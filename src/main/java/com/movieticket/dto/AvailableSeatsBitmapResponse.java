@@ -0,0 +1,16 @@
+package com.movieticket.dto;
+
+import java.util.UUID;
+
+/**
+ * Compact form of {@link AvailableSeatsResponse}: {@code bitmap} is the base64
+ * encoded availability bitmap in seat layout order, one bit per seat, most
+ * significant bit first.
+ */
+public record AvailableSeatsBitmapResponse(
+        UUID showtimeId,
+        int totalSeats,
+        int availableCount,
+        String bitmap
+) {
+}
@@ -0,0 +1,16 @@
+package com.movieticket.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact form of {@link AvailableSeatsResponse}: available seats as runs within
+ * a row, such as {@code "A0-A5"} or {@code "A7"}, in seat layout order.
+ */
+public record AvailableSeatsRangesResponse(
+        UUID showtimeId,
+        int totalSeats,
+        int availableCount,
+        List<String> availableRanges
+) {
+}
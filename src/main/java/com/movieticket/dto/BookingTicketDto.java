@@ -0,0 +1,21 @@
+package com.movieticket.dto;
+
+import java.util.UUID;
+
+/**
+ * State of an asynchronous booking. {@code reservation} is set once it is
+ * CONFIRMED; {@code error} once it is REJECTED, with the status and message the
+ * synchronous booking call would have answered.
+ */
+public record BookingTicketDto(
+        UUID ticketId,
+        UUID showtimeId,
+        Status status,
+        ReservationDto reservation,
+        ErrorResponse error
+) {
+
+    public enum Status {
+        PENDING, CONFIRMED, REJECTED
+    }
+}
@@ -0,0 +1,18 @@
+package com.movieticket.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects the showtimes whose reservations are all cancelled: either
+ * {@code showtimeIds}, or every showtime on screen {@code screenId} starting
+ * in {@code [from, to)}.
+ */
+public record BulkCancellationRequest(
+        List<UUID> showtimeIds,
+        UUID screenId,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+}
@@ -0,0 +1,21 @@
+package com.movieticket.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record CancellationJobDto(
+        UUID jobId,
+        Status status,
+        int showtimesTotal,
+        int showtimesDone,
+        long reservationsCancelled,
+        long seatsFreed,
+        LocalDateTime submittedAt,
+        LocalDateTime finishedAt,
+        String error
+) {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,10 @@
+package com.movieticket.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque token
+ * to pass back as {@code cursor} for the following page; null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
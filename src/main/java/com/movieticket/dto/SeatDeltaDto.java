@@ -0,0 +1,10 @@
+package com.movieticket.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record SeatDeltaDto(
+        UUID showtimeId,
+        List<String> seatIds
+) {
+}
@@ -0,0 +1,13 @@
+package com.movieticket.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record SeatHoldDto(
+        UUID holdId,
+        UUID showtimeId,
+        List<String> seatIds,
+        LocalDateTime expiresAt
+) {
+}
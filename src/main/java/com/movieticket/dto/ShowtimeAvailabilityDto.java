@@ -0,0 +1,19 @@
+package com.movieticket.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Availability summary of one showtime in a batch lookup, counting committed
+ * bookings only: held seats show as available. {@code bitmap} is only filled in
+ * when requested, in the format of {@link AvailableSeatsBitmapResponse}, and
+ * {@code availableCount} is then the number of seats it marks available.
+ */
+public record ShowtimeAvailabilityDto(
+        UUID showtimeId,
+        LocalDateTime dateTime,
+        int totalSeats,
+        int availableCount,
+        String bitmap
+) {
+}
@@ -11,6 +11,7 @@ public record ShowtimeDto(
         String screenLabel,
         UUID theaterId,
         String theaterName,
-        LocalDateTime dateTime
+        LocalDateTime dateTime,
+        int availableCount
 ) {
 }
@@ -0,0 +1,81 @@
+package com.movieticket.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The booking made for a client's {@code Idempotency-Key}, written in the same
+ * transaction as the reservation so a retry can never book twice.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // Expired keys are purged by age
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyKey implements Persistable<String> {
+
+    public static final int MAX_LENGTH = 255;
+
+    @Id
+    @Column(name = "idempotency_key", length = IdempotencyKey.MAX_LENGTH)
+    private String key;
+
+    // SHA-256 of the showtime and seats, so a key reused for another booking is detected
+    @Column(name = "request_hash", nullable = false, length = 64, updatable = false)
+    private String requestHash;
+
+    @Column(name = "confirmation_id", nullable = false, updatable = false)
+    private UUID confirmationId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // The key is assigned, so without this every save would first select it
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyKey() {
+    }
+
+    public IdempotencyKey(String key, String requestHash, UUID confirmationId) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.confirmationId = confirmationId;
+    }
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public UUID getConfirmationId() {
+        return confirmationId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
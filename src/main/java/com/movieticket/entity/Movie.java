@@ -11,7 +11,7 @@ import java.util.UUID;
 public class Movie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.movieticket.entity;
 
+import com.movieticket.util.UuidV7;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -8,11 +9,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_showtime_id", columnList = "showtime_id")
+})
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "confirmation_id", nullable = false, unique = true, updatable = false)
@@ -37,7 +40,9 @@ public class Reservation {
 
     @PrePersist
     public void onCreate() {
-        this.confirmationId = UUID.randomUUID();
+        // Time-ordered like the primary key, so the unique index is appended to;
+        // still unguessable, as it is all a client needs to cancel the booking
+        this.confirmationId = UuidV7.nextUnguessable();
         this.createdAt = LocalDateTime.now();
     }
 
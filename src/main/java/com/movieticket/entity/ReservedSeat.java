@@ -7,11 +7,14 @@ import java.util.UUID;
 @Entity
 @Table(name = "reserved_seats", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"showtime_id", "seat_id"})
+}, indexes = {
+        // Cancellation deletes seats by reservation
+        @Index(name = "idx_reserved_seats_reservation_id", columnList = "reservation_id")
 })
 public class ReservedSeat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
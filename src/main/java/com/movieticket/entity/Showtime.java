@@ -1,6 +1,7 @@
 package com.movieticket.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -8,11 +9,15 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "showtimes")
+@Table(name = "showtimes", indexes = {
+        @Index(name = "idx_showtimes_movie_date_time", columnList = "movie_id, date_time"),
+        @Index(name = "idx_showtimes_screen_date_time", columnList = "screen_id, date_time"),
+        @Index(name = "idx_showtimes_date_time_id", columnList = "date_time, id")
+})
 public class Showtime {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,6 +31,19 @@ public class Showtime {
     @Column(name = "date_time", nullable = false)
     private LocalDateTime dateTime;
 
+    // Seats in reserved_seats for this showtime, kept up to date by bookings and
+    // cancellations and repaired by SeatsSoldReconciler. The default lets the
+    // column be added to an existing table.
+    @ColumnDefault("0")
+    @Column(name = "seats_sold", nullable = false)
+    private int seatsSold;
+
+    // Set before the showtime's reservations are cancelled in bulk; bookings
+    // and holds are refused from then on
+    @ColumnDefault("false")
+    @Column(name = "sales_closed", nullable = false)
+    private boolean salesClosed;
+
     @OneToMany(mappedBy = "showtime")
     private List<Reservation> reservations = new ArrayList<>();
 
@@ -70,6 +88,22 @@ public class Showtime {
         this.dateTime = dateTime;
     }
 
+    public int getSeatsSold() {
+        return seatsSold;
+    }
+
+    public void setSeatsSold(int seatsSold) {
+        this.seatsSold = seatsSold;
+    }
+
+    public boolean isSalesClosed() {
+        return salesClosed;
+    }
+
+    public void setSalesClosed(boolean salesClosed) {
+        this.salesClosed = salesClosed;
+    }
+
     public List<Reservation> getReservations() {
         return reservations;
     }
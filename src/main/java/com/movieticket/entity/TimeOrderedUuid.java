@@ -0,0 +1,21 @@
+package com.movieticket.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated UUID id as a time-ordered UUIDv7 (see
+ * {@link com.movieticket.util.UuidV7}), so new rows go to the end of the
+ * primary key index. Used in place of
+ * {@code @GeneratedValue(strategy = GenerationType.UUID)}, whose random v4 ids
+ * scatter inserts across the index.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,8 @@
+package com.movieticket.exception;
+
+public class BookingQueueFullException extends RuntimeException {
+
+    public BookingQueueFullException(int capacity) {
+        super("Booking queue is full (" + capacity + " pending bookings). Please try again shortly.");
+    }
+}
@@ -0,0 +1,10 @@
+package com.movieticket.exception;
+
+import java.time.Duration;
+
+public class BookingTimeoutException extends RuntimeException {
+
+    public BookingTimeoutException(Duration waited) {
+        super("The booking could not be written within " + waited.toMillis() + " ms. Please try again.");
+    }
+}
@@ -0,0 +1,10 @@
+package com.movieticket.exception;
+
+import java.util.UUID;
+
+public class CancellationJobNotFoundException extends RuntimeException {
+
+    public CancellationJobNotFoundException(UUID jobId) {
+        super("Cancellation job not found: " + jobId);
+    }
+}
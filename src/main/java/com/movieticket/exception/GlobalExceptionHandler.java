@@ -38,6 +38,24 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(404, "Not Found", ex.getMessage()));
     }
 
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleHoldNotFound(HoldNotFoundException ex) {
+        return ResponseEntity.status(404)
+                .body(new ErrorResponse(404, "Not Found", ex.getMessage()));
+    }
+
+    @ExceptionHandler(CancellationJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleCancellationJobNotFound(CancellationJobNotFoundException ex) {
+        return ResponseEntity.status(404)
+                .body(new ErrorResponse(404, "Not Found", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TicketNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTicketNotFound(TicketNotFoundException ex) {
+        return ResponseEntity.status(404)
+                .body(new ErrorResponse(404, "Not Found", ex.getMessage()));
+    }
+
     @ExceptionHandler(InvalidSeatException.class)
     public ResponseEntity<ErrorResponse> handleInvalidSeat(InvalidSeatException ex) {
         return ResponseEntity.status(400)
@@ -50,6 +68,66 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(409, "Conflict", ex.getMessage()));
     }
 
+    @ExceptionHandler(ShowtimeClosedException.class)
+    public ResponseEntity<ErrorResponse> handleShowtimeClosed(ShowtimeClosedException ex) {
+        return ResponseEntity.status(409)
+                .body(new ErrorResponse(409, "Conflict", ex.getMessage()));
+    }
+
+    @ExceptionHandler(HoldLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleHoldLimitExceeded(HoldLimitExceededException ex) {
+        return ResponseEntity.status(429)
+                .body(new ErrorResponse(429, "Too Many Requests", ex.getMessage()));
+    }
+
+    @ExceptionHandler(BookingQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleBookingQueueFull(BookingQueueFullException ex) {
+        return ResponseEntity.status(503)
+                .body(new ErrorResponse(503, "Service Unavailable", ex.getMessage()));
+    }
+
+    @ExceptionHandler(BookingTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleBookingTimeout(BookingTimeoutException ex) {
+        return ResponseEntity.status(503)
+                .body(new ErrorResponse(503, "Service Unavailable", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return ResponseEntity.status(400)
+                .body(new ErrorResponse(400, "Bad Request", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(422)
+                .body(new ErrorResponse(422, "Unprocessable Entity", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.status(400)
+                .body(new ErrorResponse(400, "Bad Request", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidAvailabilityQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidAvailabilityQuery(InvalidAvailabilityQueryException ex) {
+        return ResponseEntity.status(400)
+                .body(new ErrorResponse(400, "Bad Request", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidShowtimeQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidShowtimeQuery(InvalidShowtimeQueryException ex) {
+        return ResponseEntity.status(400)
+                .body(new ErrorResponse(400, "Bad Request", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidBulkCancellationException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBulkCancellation(InvalidBulkCancellationException ex) {
+        return ResponseEntity.status(400)
+                .body(new ErrorResponse(400, "Bad Request", ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,11 @@
+package com.movieticket.exception;
+
+import java.util.UUID;
+
+public class HoldLimitExceededException extends RuntimeException {
+
+    public HoldLimitExceededException(UUID showtimeId, int limit) {
+        super("Showtime " + showtimeId + " already has the maximum of " + limit
+                + " seat holds. Please try again later.");
+    }
+}
@@ -0,0 +1,10 @@
+package com.movieticket.exception;
+
+import java.util.UUID;
+
+public class HoldNotFoundException extends RuntimeException {
+
+    public HoldNotFoundException(UUID holdId) {
+        super("Seat hold not found or expired: " + holdId);
+    }
+}
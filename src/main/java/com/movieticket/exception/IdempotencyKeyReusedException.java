@@ -0,0 +1,8 @@
+package com.movieticket.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency key was already used for a different booking: " + key);
+    }
+}
@@ -0,0 +1,8 @@
+package com.movieticket.exception;
+
+public class InvalidBulkCancellationException extends RuntimeException {
+
+    public InvalidBulkCancellationException(String message) {
+        super(message);
+    }
+}
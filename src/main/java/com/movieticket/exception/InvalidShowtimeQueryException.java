@@ -0,0 +1,8 @@
+package com.movieticket.exception;
+
+public class InvalidShowtimeQueryException extends RuntimeException {
+
+    public InvalidShowtimeQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.movieticket.exception;
+
+import java.util.UUID;
+
+public class ShowtimeClosedException extends RuntimeException {
+
+    public ShowtimeClosedException(UUID showtimeId) {
+        super("Showtime is no longer on sale: " + showtimeId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.movieticket.exception;
+
+import java.util.UUID;
+
+public class TicketNotFoundException extends RuntimeException {
+
+    public TicketNotFoundException(UUID ticketId) {
+        super("Booking ticket not found or expired: " + ticketId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.movieticket.repository;
+
+import java.util.UUID;
+
+/**
+ * One seat freed by cancelling the reservation with {@code confirmationId}.
+ */
+public record CancelledSeat(UUID confirmationId, UUID showtimeId, String seatId) {
+}
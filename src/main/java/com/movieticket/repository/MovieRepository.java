@@ -1,12 +1,32 @@
 package com.movieticket.repository;
 
+import com.movieticket.dto.MovieDto;
 import com.movieticket.entity.Movie;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface MovieRepository extends JpaRepository<Movie, UUID> {
 
-    List<Movie> findByTitleContainingIgnoreCase(String title);
+    @Query("select new com.movieticket.dto.MovieDto(m.id, m.title) from Movie m order by m.id")
+    List<MovieDto> findPage(Limit limit);
+
+    @Query("""
+            select new com.movieticket.dto.MovieDto(m.id, m.title) from Movie m
+            where m.id > :after
+            order by m.id
+            """)
+    List<MovieDto> findPageAfter(@Param("after") UUID after, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.movieticket.dto.MovieDto(m.id, m.title) from Movie m order by m.id")
+    Stream<MovieDto> streamAll();
 }
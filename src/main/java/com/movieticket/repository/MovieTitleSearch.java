@@ -0,0 +1,34 @@
+package com.movieticket.repository;
+
+import com.movieticket.dto.MovieDto;
+
+import java.util.List;
+
+/**
+ * Ranked, index-backed movie title search. The implementation is chosen by
+ * {@code movieticket.sql.vendor}: PostgreSQL uses a {@code pg_trgm} GIN index,
+ * other databases fall back to portable JPQL.
+ */
+public interface MovieTitleSearch {
+
+    /**
+     * Movies whose title contains {@code query}, case-insensitively. Titles that
+     * start with the query rank first.
+     */
+    List<MovieDto> contains(String query, int limit);
+
+    /**
+     * Escapes LIKE wildcards so user input only ever matches literally.
+     */
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.movieticket.repository;
+
+import com.movieticket.dto.MovieDto;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Title search for databases without trigram indexes (H2 in tests). Matches and
+ * ranks the same way as {@link PostgresMovieTitleSearch}, but scans.
+ */
+@Repository
+@ConditionalOnProperty(name = "movieticket.sql.vendor", havingValue = "portable")
+public class PortableMovieTitleSearch implements MovieTitleSearch {
+
+    private static final String CONTAINS_JPQL = """
+            select new com.movieticket.dto.MovieDto(m.id, m.title) from Movie m
+            where lower(m.title) like :contains escape '\\'
+            order by case when lower(m.title) like :prefix escape '\\' then 0 else 1 end,
+                     length(m.title), m.title, m.id
+            """;
+
+    private final EntityManager entityManager;
+
+    public PortableMovieTitleSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<MovieDto> contains(String query, int limit) {
+        String escaped = escape(query);
+        return entityManager.createQuery(CONTAINS_JPQL, MovieDto.class)
+                .setParameter("contains", "%" + escaped + "%")
+                .setParameter("prefix", escaped + "%")
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escape(String query) {
+        return MovieTitleSearch.escapeLike(query.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,85 @@
+package com.movieticket.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cancellation for databases without {@code RETURNING} from deletes (H2 in
+ * tests). The reservations are locked first so a concurrent cancellation cannot
+ * free the same seats twice; the seats are then read and everything is removed
+ * with bulk JPQL. The statement count depends on the number of showtimes
+ * involved, never on the number of seats.
+ */
+@Repository
+@ConditionalOnProperty(name = "movieticket.sql.vendor", havingValue = "portable")
+public class PortableReservationCancellation implements ReservationCancellation {
+
+    private static final String LOCK_JPQL = """
+            select r.id from Reservation r
+            where r.confirmationId in :confirmationIds
+            """;
+
+    private static final String SEATS_JPQL = """
+            select new com.movieticket.repository.CancelledSeat(r.confirmationId, rs.showtime.id, rs.seatId)
+            from ReservedSeat rs join rs.reservation r
+            where r.id in :reservationIds
+            """;
+
+    private static final String DELETE_SEATS_JPQL = """
+            delete from ReservedSeat rs where rs.reservation.id in :reservationIds
+            """;
+
+    private static final String DELETE_RESERVATIONS_JPQL = """
+            delete from Reservation r where r.id in :reservationIds
+            """;
+
+    private static final String RELEASE_SOLD_JPQL = """
+            update Showtime s set s.seatsSold = s.seatsSold - :seats where s.id = :showtimeId
+            """;
+
+    private final EntityManager entityManager;
+
+    public PortableReservationCancellation(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CancelledSeat> cancel(Collection<UUID> confirmationIds) {
+        if (confirmationIds.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> reservationIds = entityManager.createQuery(LOCK_JPQL, UUID.class)
+                .setParameter("confirmationIds", confirmationIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (reservationIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<CancelledSeat> seats = entityManager.createQuery(SEATS_JPQL, CancelledSeat.class)
+                .setParameter("reservationIds", reservationIds)
+                .getResultList();
+        entityManager.createQuery(DELETE_SEATS_JPQL)
+                .setParameter("reservationIds", reservationIds)
+                .executeUpdate();
+        entityManager.createQuery(DELETE_RESERVATIONS_JPQL)
+                .setParameter("reservationIds", reservationIds)
+                .executeUpdate();
+
+        Map<UUID, Long> freedByShowtime = seats.stream()
+                .collect(Collectors.groupingBy(CancelledSeat::showtimeId, Collectors.counting()));
+        freedByShowtime.forEach((showtimeId, freed) -> entityManager.createQuery(RELEASE_SOLD_JPQL)
+                .setParameter("seats", freed.intValue())
+                .setParameter("showtimeId", showtimeId)
+                .executeUpdate());
+        return seats;
+    }
+}
@@ -0,0 +1,53 @@
+package com.movieticket.repository;
+
+import com.movieticket.dto.MovieDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Title search on PostgreSQL. Every predicate is an ILIKE, which the
+ * {@code idx_movies_title_trgm} GIN index (schema-postgresql.sql) answers
+ * without scanning {@code movies}. The index and {@code word_similarity} need
+ * the {@code pg_trgm} extension, which is installed once per database by a DBA
+ * (db/extensions-postgresql.sql), not at startup.
+ */
+@Repository
+@ConditionalOnProperty(name = "movieticket.sql.vendor", havingValue = "postgresql", matchIfMissing = true)
+public class PostgresMovieTitleSearch implements MovieTitleSearch {
+
+    private static final String CONTAINS_SQL = """
+            select id, title from movies
+            where title ilike :contains escape '\\'
+            order by title ilike :prefix escape '\\' desc, word_similarity(:query, title) desc, title, id
+            limit :limit
+            """;
+
+    private static final RowMapper<MovieDto> MOVIE_ROW =
+            (rs, rowNum) -> new MovieDto(rs.getObject("id", UUID.class), rs.getString("title"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresMovieTitleSearch(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<MovieDto> contains(String query, int limit) {
+        return jdbcTemplate.query(CONTAINS_SQL, parameters(query, limit), MOVIE_ROW);
+    }
+
+    private static MapSqlParameterSource parameters(String query, int limit) {
+        String escaped = MovieTitleSearch.escapeLike(query);
+        return new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("contains", "%" + escaped + "%")
+                .addValue("prefix", escaped + "%")
+                .addValue("limit", limit);
+    }
+}
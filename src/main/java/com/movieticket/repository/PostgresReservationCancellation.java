@@ -0,0 +1,63 @@
+package com.movieticket.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cancellation on PostgreSQL: the seats, the reservations and the seats-sold
+ * counters are updated by one statement of data-modifying CTEs, and the freed
+ * seats come back through {@code RETURNING}. A concurrent cancellation of the
+ * same reservation blocks on its rows and then finds nothing left to delete.
+ */
+@Repository
+@ConditionalOnProperty(name = "movieticket.sql.vendor", havingValue = "postgresql", matchIfMissing = true)
+public class PostgresReservationCancellation implements ReservationCancellation {
+
+    private static final String CANCEL_SQL = """
+            with seats as (
+                delete from reserved_seats rs
+                using reservations r
+                where rs.reservation_id = r.id and r.confirmation_id in (:confirmationIds)
+                returning rs.reservation_id, rs.showtime_id, rs.seat_id
+            ), cancelled as (
+                delete from reservations r
+                where r.confirmation_id in (:confirmationIds)
+                returning r.id, r.confirmation_id
+            ), sold as (
+                update showtimes s
+                set seats_sold = s.seats_sold - freed.seats
+                from (select showtime_id, count(*) as seats from seats group by showtime_id) freed
+                where s.id = freed.showtime_id
+            )
+            select c.confirmation_id, seats.showtime_id, seats.seat_id
+            from cancelled c
+            join seats on seats.reservation_id = c.id
+            """;
+
+    private static final RowMapper<CancelledSeat> CANCELLED_SEAT_ROW = (rs, rowNum) -> new CancelledSeat(
+            rs.getObject("confirmation_id", UUID.class),
+            rs.getObject("showtime_id", UUID.class),
+            rs.getString("seat_id"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresReservationCancellation(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<CancelledSeat> cancel(Collection<UUID> confirmationIds) {
+        if (confirmationIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(CANCEL_SQL,
+                new MapSqlParameterSource("confirmationIds", confirmationIds), CANCELLED_SEAT_ROW);
+    }
+}
@@ -0,0 +1,25 @@
+package com.movieticket.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes reservations and their seats with set-based statements, without
+ * loading the reservation graph. The implementation is chosen by
+ * {@code movieticket.sql.vendor}: PostgreSQL does it in one statement,
+ * other databases fall back to a few portable JPQL statements.
+ * <p>
+ * Must run inside a transaction.
+ */
+public interface ReservationCancellation {
+
+    /**
+     * Deletes the reservations with the given confirmation ids, their reserved
+     * seats, and takes the seats off their showtimes' seats-sold counters.
+     * Unknown confirmation ids, including ones cancelled concurrently, are skipped.
+     *
+     * @return the freed seats of every reservation cancelled by this call
+     */
+    List<CancelledSeat> cancel(Collection<UUID> confirmationIds);
+}
@@ -1,12 +1,28 @@
 package com.movieticket.repository;
 
 import com.movieticket.entity.Reservation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
 
-    Optional<Reservation> findByConfirmationId(UUID confirmationId);
+    @Query("select r.confirmationId from Reservation r where r.showtime.id = :showtimeId")
+    List<UUID> findConfirmationIdsByShowtimeId(@Param("showtimeId") UUID showtimeId, Limit limit);
+
+    @Query("""
+            select r from Reservation r
+            join fetch r.showtime s
+            join fetch s.movie
+            join fetch s.screen sc
+            join fetch sc.theater
+            join fetch r.reservedSeats
+            where r.confirmationId = :confirmationId
+            """)
+    Optional<Reservation> findWithDetailsByConfirmationId(@Param("confirmationId") UUID confirmationId);
 }
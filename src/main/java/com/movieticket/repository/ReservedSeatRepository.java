@@ -2,11 +2,33 @@ package com.movieticket.repository;
 
 import com.movieticket.entity.ReservedSeat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ReservedSeatRepository extends JpaRepository<ReservedSeat, UUID> {
 
-    List<ReservedSeat> findByShowtimeId(UUID showtimeId);
+    @Query("select rs.seatId from ReservedSeat rs where rs.showtime.id = :showtimeId")
+    List<String> findSeatIdsByShowtimeId(@Param("showtimeId") UUID showtimeId);
+
+    @Query("select count(rs) from ReservedSeat rs where rs.showtime.id = :showtimeId")
+    long countByShowtimeId(@Param("showtimeId") UUID showtimeId);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSeat(s.id, rs.seatId)
+            from ReservedSeat rs join rs.showtime s
+            where s.dateTime > :after
+            """)
+    List<ShowtimeSeat> findSeatsForShowtimesAfter(@Param("after") LocalDateTime after);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSeat(rs.showtime.id, rs.seatId)
+            from ReservedSeat rs
+            where rs.showtime.id in :showtimeIds
+            """)
+    List<ShowtimeSeat> findSeatsByShowtimeIds(@Param("showtimeIds") Collection<UUID> showtimeIds);
 }
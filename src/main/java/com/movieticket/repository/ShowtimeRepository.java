@@ -1,14 +1,203 @@
 package com.movieticket.repository;
 
+import com.movieticket.dto.ShowtimeDto;
 import com.movieticket.entity.Showtime;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ShowtimeRepository extends JpaRepository<Showtime, UUID> {
 
-    List<Showtime> findByMovieId(UUID movieId);
+    @Query("""
+            select s from Showtime s
+            join fetch s.movie
+            join fetch s.screen sc
+            join fetch sc.theater
+            where s.id in :ids
+            order by s.id
+            """)
+    List<Showtime> findWithDetailsByIdIn(@Param("ids") Collection<UUID> ids);
 
-    List<Showtime> findByScreenTheaterId(UUID theaterId);
+    @Query("""
+            select new com.movieticket.dto.ShowtimeDto(
+                s.id, m.id, m.title, sc.id, sc.label, t.id, t.name, s.dateTime,
+                com.movieticket.util.SeatLayout.TOTAL_SEATS - s.seatsSold)
+            from Showtime s
+            join s.movie m
+            join s.screen sc
+            join sc.theater t
+            where m.id = :movieId
+              and s.dateTime >= :from and s.dateTime < :to
+            order by s.dateTime
+            """)
+    List<ShowtimeDto> findDtosByMovieIdAndDateTimeBetween(@Param("movieId") UUID movieId,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to,
+                                                          Limit limit);
+
+    @Query("""
+            select new com.movieticket.dto.ShowtimeDto(
+                s.id, m.id, m.title, sc.id, sc.label, t.id, t.name, s.dateTime,
+                com.movieticket.util.SeatLayout.TOTAL_SEATS - s.seatsSold)
+            from Showtime s
+            join s.movie m
+            join s.screen sc
+            join sc.theater t
+            where t.id = :theaterId
+              and s.dateTime >= :from and s.dateTime < :to
+            order by s.dateTime
+            """)
+    List<ShowtimeDto> findDtosByTheaterIdAndDateTimeBetween(@Param("theaterId") UUID theaterId,
+                                                            @Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to,
+                                                            Limit limit);
+
+    @Query("""
+            select new com.movieticket.dto.ShowtimeDto(
+                s.id, m.id, m.title, sc.id, sc.label, t.id, t.name, s.dateTime,
+                com.movieticket.util.SeatLayout.TOTAL_SEATS - s.seatsSold)
+            from Showtime s
+            join s.movie m
+            join s.screen sc
+            join sc.theater t
+            order by s.dateTime, s.id
+            """)
+    List<ShowtimeDto> findPage(Limit limit);
+
+    @Query("""
+            select new com.movieticket.dto.ShowtimeDto(
+                s.id, m.id, m.title, sc.id, sc.label, t.id, t.name, s.dateTime,
+                com.movieticket.util.SeatLayout.TOTAL_SEATS - s.seatsSold)
+            from Showtime s
+            join s.movie m
+            join s.screen sc
+            join sc.theater t
+            where s.dateTime > :dateTime or (s.dateTime = :dateTime and s.id > :id)
+            order by s.dateTime, s.id
+            """)
+    List<ShowtimeDto> findPageAfter(@Param("dateTime") LocalDateTime dateTime,
+                                    @Param("id") UUID id,
+                                    Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.movieticket.dto.ShowtimeDto(
+                s.id, m.id, m.title, sc.id, sc.label, t.id, t.name, s.dateTime,
+                com.movieticket.util.SeatLayout.TOTAL_SEATS - s.seatsSold)
+            from Showtime s
+            join s.movie m
+            join s.screen sc
+            join sc.theater t
+            order by s.dateTime, s.id
+            """)
+    Stream<ShowtimeDto> streamAll();
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSaleState(s.id, s.dateTime, s.salesClosed)
+            from Showtime s
+            where s.dateTime > :after
+            """)
+    List<ShowtimeSaleState> findSaleStatesByDateTimeAfter(@Param("after") LocalDateTime after);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSaleState(s.id, s.dateTime, s.salesClosed)
+            from Showtime s
+            where s.id = :id
+            """)
+    Optional<ShowtimeSaleState> findSaleStateById(@Param("id") UUID id);
+
+    @Query("select s.id from Showtime s where s.id in :ids order by s.dateTime, s.id")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            select s.id from Showtime s
+            where s.screen.id = :screenId
+              and s.dateTime >= :from and s.dateTime < :to
+            order by s.dateTime, s.id
+            """)
+    List<UUID> findIdsByScreenIdAndDateTimeBetween(@Param("screenId") UUID screenId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSeatCount(s.id, s.dateTime, s.seatsSold)
+            from Showtime s
+            where s.id in :ids
+            order by s.dateTime, s.id
+            """)
+    List<ShowtimeSeatCount> findSeatsSoldByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSeatCount(s.id, s.dateTime, s.seatsSold)
+            from Showtime s
+            where s.movie.id = :movieId
+              and s.dateTime >= :from and s.dateTime < :to
+            order by s.dateTime, s.id
+            """)
+    List<ShowtimeSeatCount> findSeatsSoldByMovie(@Param("movieId") UUID movieId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 Limit limit);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSeatCount(s.id, s.dateTime, s.seatsSold)
+            from Showtime s
+            where s.screen.theater.id = :theaterId
+              and s.dateTime >= :from and s.dateTime < :to
+            order by s.dateTime, s.id
+            """)
+    List<ShowtimeSeatCount> findSeatsSoldByTheater(@Param("theaterId") UUID theaterId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   Limit limit);
+
+    @Query("""
+            select new com.movieticket.repository.ShowtimeSeatCount(s.id, s.dateTime, s.seatsSold)
+            from Showtime s
+            where s.movie.id = :movieId
+              and s.screen.theater.id = :theaterId
+              and s.dateTime >= :from and s.dateTime < :to
+            order by s.dateTime, s.id
+            """)
+    List<ShowtimeSeatCount> findSeatsSoldByMovieAndTheater(@Param("movieId") UUID movieId,
+                                                           @Param("theaterId") UUID theaterId,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to,
+                                                           Limit limit);
+
+    /**
+     * @return 0 if the showtime's sales have been closed, in which case nothing is added
+     */
+    @Modifying
+    @Query("update Showtime s set s.seatsSold = s.seatsSold + :delta where s.id = :id and s.salesClosed = false")
+    int addSeatsSoldIfOpen(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update Showtime s set s.salesClosed = true where s.id = :id")
+    int closeSales(@Param("id") UUID id);
+
+    @Query("""
+            select s.id from Showtime s
+            where s.dateTime > :after
+              and s.seatsSold <> (select count(rs) from ReservedSeat rs where rs.showtime = s)
+            """)
+    List<UUID> findIdsWithSeatsSoldDriftAfter(@Param("after") LocalDateTime after);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Showtime s where s.id = :id")
+    Optional<Showtime> findByIdForUpdate(@Param("id") UUID id);
 }
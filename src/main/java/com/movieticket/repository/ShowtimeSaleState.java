@@ -0,0 +1,10 @@
+package com.movieticket.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * When a showtime starts and whether it is still on sale.
+ */
+public record ShowtimeSaleState(UUID showtimeId, LocalDateTime dateTime, boolean salesClosed) {
+}
@@ -0,0 +1,6 @@
+package com.movieticket.repository;
+
+import java.util.UUID;
+
+public record ShowtimeSeat(UUID showtimeId, String seatId) {
+}
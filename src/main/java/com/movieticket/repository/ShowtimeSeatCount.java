@@ -0,0 +1,10 @@
+package com.movieticket.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One showtime with the number of seats sold for it.
+ */
+public record ShowtimeSeatCount(UUID showtimeId, LocalDateTime dateTime, int seatsSold) {
+}
@@ -1,9 +1,48 @@
 package com.movieticket.repository;
 
 import com.movieticket.entity.Theater;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TheaterRepository extends JpaRepository<Theater, UUID> {
+
+    /**
+     * Loads every theater with its screens in one query. The result is held in the
+     * query cache and invalidated by any write to the theaters or screens tables.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select distinct t from Theater t left join fetch t.screens order by t.name, t.id")
+    List<Theater> findAllWithScreens();
+
+    @Query("select t.id from Theater t order by t.id")
+    List<UUID> findPageIds(Limit limit);
+
+    @Query("select t.id from Theater t where t.id > :after order by t.id")
+    List<UUID> findPageIdsAfter(@Param("after") UUID after, Limit limit);
+
+    @Query("""
+            select new com.movieticket.repository.TheaterScreenRow(t.id, t.name, s.id, s.label)
+            from Theater t left join t.screens s
+            where t.id in :ids
+            order by t.id
+            """)
+    List<TheaterScreenRow> findRowsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.movieticket.repository.TheaterScreenRow(t.id, t.name, s.id, s.label)
+            from Theater t left join t.screens s
+            order by t.id
+            """)
+    Stream<TheaterScreenRow> streamAllRows();
 }
@@ -0,0 +1,10 @@
+package com.movieticket.repository;
+
+import java.util.UUID;
+
+/**
+ * One theater joined with one of its screens; screen columns are null for a
+ * theater without screens.
+ */
+public record TheaterScreenRow(UUID theaterId, String theaterName, UUID screenId, String screenLabel) {
+}
@@ -0,0 +1,209 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.exception.BookingTimeoutException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for synchronous bookings. Instead of every request opening and
+ * committing its own transaction, bookings arriving within
+ * {@code movieticket.bookings.group-commit.window} of each other, up to
+ * {@code max-batch} of them and for any showtimes, are written by
+ * {@link ReservationWriter} in one transaction: one commit and one log flush
+ * for the whole group.
+ * <p>
+ * Seats are claimed in {@link SeatInventory} before a booking gets here, so the
+ * bookings of a group never conflict with each other. If the group's write
+ * still fails, each booking is retried in a transaction of its own, so callers
+ * only ever see the failure of their own booking.
+ * <p>
+ * {@code writers} threads take groups from the queue, so a group can be
+ * collected while the previous one commits. A booking still queued after
+ * {@code movieticket.bookings.group-commit.timeout} is withdrawn and fails
+ * with {@link BookingTimeoutException}; once a writer has taken it, the caller
+ * waits for its transaction to finish. With
+ * {@code movieticket.bookings.group-commit.enabled=false} every booking is
+ * written on the calling thread.
+ */
+@Component
+public class BookingCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingCoalescer.class);
+
+    private final ReservationWriter reservationWriter;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Duration timeout;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService writers;
+    private final DistributionSummary batchSize;
+
+    public BookingCoalescer(ReservationWriter reservationWriter,
+                            MeterRegistry meterRegistry,
+                            @Value("${movieticket.bookings.group-commit.enabled:true}") boolean enabled,
+                            @Value("${movieticket.bookings.group-commit.window:PT0.002S}") Duration window,
+                            @Value("${movieticket.bookings.group-commit.max-batch:64}") int maxBatch,
+                            @Value("${movieticket.bookings.group-commit.writers:2}") int writers,
+                            @Value("${movieticket.bookings.group-commit.timeout:PT10S}") Duration timeout) {
+        if (maxBatch <= 0 || writers <= 0) {
+            throw new IllegalArgumentException(
+                    "movieticket.bookings.group-commit.max-batch and writers must be positive");
+        }
+        this.reservationWriter = reservationWriter;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.timeout = timeout;
+        this.batchSize = DistributionSummary.builder("bookings.group-commit.size")
+                .description("Bookings written per group-commit transaction")
+                .register(meterRegistry);
+        this.writers = Executors.newFixedThreadPool(writers, Thread.ofPlatform()
+                .name("booking-group-commit-", 0)
+                .daemon(true)
+                .factory());
+        if (enabled) {
+            for (int i = 0; i < writers; i++) {
+                this.writers.execute(this::run);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            if (pending.take()) {
+                pending.result.completeExceptionally(new IllegalStateException("Shutting down"));
+            }
+        }
+    }
+
+    /**
+     * Writes the reservation for seats already claimed, waiting for the group it
+     * joins to commit.
+     *
+     * @throws BookingTimeoutException if no writer took the booking in time; it is then never written
+     * @throws RuntimeException        whatever writing this booking failed with
+     */
+    public ReservationDto write(ReservationWriter.Booking booking) {
+        if (!enabled) {
+            return reservationWriter.write(List.of(booking)).getFirst();
+        }
+        Pending pending = new Pending(booking, new CompletableFuture<>(), new AtomicBoolean());
+        queue.add(pending);
+        try {
+            return pending.result.copy().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException && pending.take()) {
+                queue.remove(pending);
+                throw new BookingTimeoutException(timeout);
+            }
+            // Taken by a writer before the deadline: the booking may yet commit, so
+            // the caller must see how its transaction ends
+            return join(pending.result);
+        }
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (group.size() < maxBatch) {
+                    queue.drainTo(group, maxBatch - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Bookings withdrawn after a timeout are left out
+            group.removeIf(pending -> !pending.take());
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Completes every booking of the group, whatever happens: a writer that let
+     * an error escape would leave its callers waiting and stop taking groups.
+     */
+    private void commit(List<Pending> group) {
+        batchSize.record(group.size());
+        try {
+            List<ReservationDto> written = reservationWriter.write(group.stream().map(Pending::booking).toList());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(written.get(i));
+            }
+            return;
+        } catch (Throwable e) {
+            if (group.size() == 1) {
+                group.getFirst().result.completeExceptionally(e);
+                return;
+            }
+            log.debug("Group of {} bookings failed, writing them one by one", group.size(), e);
+        }
+        for (Pending pending : group) {
+            try {
+                pending.result.complete(reservationWriter.write(List.of(pending.booking)).getFirst());
+            } catch (Throwable e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static ReservationDto join(CompletableFuture<ReservationDto> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            switch (e.getCause()) {
+                case RuntimeException cause -> throw cause;
+                case Error cause -> throw cause;
+                default -> throw e;
+            }
+        }
+    }
+
+    /**
+     * @param taken set by whichever comes first: a writer taking the booking, or
+     *              its caller withdrawing it after the timeout
+     */
+    private record Pending(ReservationWriter.Booking booking, CompletableFuture<ReservationDto> result,
+                           AtomicBoolean taken) {
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
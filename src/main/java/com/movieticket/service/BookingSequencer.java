@@ -0,0 +1,329 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.BookingRequest;
+import com.movieticket.dto.BookingTicketDto;
+import com.movieticket.dto.ErrorResponse;
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.exception.BookingQueueFullException;
+import com.movieticket.exception.SeatUnavailableException;
+import com.movieticket.exception.ShowtimeClosedException;
+import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.exception.TicketNotFoundException;
+import com.movieticket.util.SeatMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous bookings. Each accepted request gets a ticket and joins the
+ * queue of its showtime; every showtime with queued bookings has exactly one
+ * writer draining it, so bookings are applied in arrival order. The writer
+ * takes up to {@code movieticket.bookings.async.max-batch} bookings at a time,
+ * claims their seats in {@link SeatInventory} one after another, rejecting
+ * those that conflict, and writes the rest in a single transaction. If that
+ * transaction fails, each booking is written on its own, so only the bookings
+ * that fail by themselves are rejected.
+ * <p>
+ * Tickets are kept in memory: results can be collected until
+ * {@code movieticket.bookings.async.ticket-ttl} after completion, and expired
+ * tickets are dropped every {@code expiry-interval}. On shutdown, batches
+ * already being written finish and bookings still queued are rejected.
+ */
+@Service
+public class BookingSequencer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSequencer.class);
+
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(10);
+    private static final ErrorResponse SHUTTING_DOWN = new ErrorResponse(503, "Service Unavailable",
+            "The server is shutting down. Please try again.");
+
+    private final SeatInventory seatInventory;
+    private final ReservationWriter reservationWriter;
+    private final int maxBatch;
+    private final int maxQueued;
+    private final long ticketTtlNanos;
+    private final ConcurrentMap<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, BookingTicket> tickets = new ConcurrentHashMap<>();
+    // Completed tickets in completion order, so expiry only ever looks at the head
+    private final Queue<BookingTicket> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile boolean stopped;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BookingSequencer(SeatInventory seatInventory,
+                            ReservationWriter reservationWriter,
+                            @Value("${movieticket.bookings.async.max-batch:100}") int maxBatch,
+                            @Value("${movieticket.bookings.async.max-queued:10000}") int maxQueued,
+                            @Value("${movieticket.bookings.async.ticket-ttl:PT10M}") Duration ticketTtl) {
+        this.seatInventory = seatInventory;
+        this.reservationWriter = reservationWriter;
+        this.maxBatch = maxBatch;
+        this.maxQueued = maxQueued;
+        this.ticketTtlNanos = ticketTtl.toNanos();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        stopped = true;
+        writers.shutdown();
+        if (!writers.awaitTermination(SHUTDOWN_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+            writers.shutdownNow();
+        }
+        lanes.values().forEach(Lane::rejectQueued);
+    }
+
+    /**
+     * Validates the seat ids and queues the booking. Everything else, including
+     * an unknown showtime, is reported through the ticket.
+     *
+     * @throws BookingQueueFullException if too many bookings are already queued
+     */
+    public BookingTicketDto submit(BookingRequest request) {
+        SeatMap seats = BookingService.parseSeats(request.seatIds());
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new BookingQueueFullException(maxQueued);
+        }
+
+        UUID showtimeId = request.showtimeId();
+        BookingTicket ticket = new BookingTicket(showtimeId);
+        tickets.put(ticket.id(), ticket);
+        Lane lane = lanes.compute(showtimeId, (id, existing) -> {
+            Lane l = existing == null ? new Lane(id) : existing;
+            l.queue.add(new Pending(ticket, seats));
+            return l;
+        });
+        lane.schedule();
+        return ticket.current();
+    }
+
+    /**
+     * The ticket's state, waiting up to {@code wait} for it to be confirmed or
+     * rejected if it is still pending.
+     */
+    public CompletableFuture<BookingTicketDto> getTicket(UUID ticketId, Duration wait) {
+        BookingTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new TicketNotFoundException(ticketId);
+        }
+        return ticket.await(wait.toMillis());
+    }
+
+    int queuedBookings() {
+        return queued.get();
+    }
+
+    private void process(UUID showtimeId, List<Pending> batch) {
+        List<Pending> claimed = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            try {
+                List<String> alreadyTaken = seatInventory.claim(showtimeId, pending.seats);
+                if (alreadyTaken.isEmpty()) {
+                    claimed.add(pending);
+                } else {
+                    complete(pending, null, rejection(new SeatUnavailableException(alreadyTaken)));
+                }
+            } catch (RuntimeException e) {
+                complete(pending, null, rejection(e));
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<ReservationDto> reservations = reservationWriter.write(claimed.stream()
+                    .map(pending -> new ReservationWriter.Booking(showtimeId, pending.seats))
+                    .toList());
+            for (int i = 0; i < claimed.size(); i++) {
+                complete(claimed.get(i), reservations.get(i), null);
+            }
+            return;
+        } catch (Throwable e) {
+            if (claimed.size() == 1) {
+                fail(showtimeId, claimed.getFirst(), e);
+                return;
+            }
+            log.debug("Batch of {} queued bookings for showtime {} failed, writing them one by one",
+                    claimed.size(), showtimeId, e);
+        }
+        for (Pending pending : claimed) {
+            try {
+                complete(pending, reservationWriter.write(
+                        List.of(new ReservationWriter.Booking(showtimeId, pending.seats))).getFirst(), null);
+            } catch (Throwable e) {
+                fail(showtimeId, pending, e);
+            }
+        }
+    }
+
+    private void fail(UUID showtimeId, Pending pending, Throwable e) {
+        log.warn("Writing a queued booking for showtime {} failed", showtimeId, e);
+        if (e instanceof DataIntegrityViolationException) {
+            // Seats reserved in the table that the inventory had free; see BookingService
+            seatInventory.reconcile(showtimeId, pending.seats);
+        } else {
+            seatInventory.release(showtimeId, pending.seats);
+        }
+        complete(pending, null, rejection(e));
+    }
+
+    private void complete(Pending pending, ReservationDto reservation, ErrorResponse error) {
+        if (reservation != null) {
+            pending.ticket.confirm(reservation);
+        } else {
+            pending.ticket.reject(error);
+        }
+        completed.add(pending.ticket);
+        queued.decrementAndGet();
+    }
+
+    /**
+     * Drops tickets completed more than the ticket TTL ago.
+     *
+     * @return the number of tickets dropped
+     */
+    @Scheduled(fixedDelayString = "${movieticket.bookings.async.expiry-interval:PT1M}")
+    public int expireTickets() {
+        long now = System.nanoTime();
+        int expired = 0;
+        BookingTicket head;
+        while ((head = completed.peek()) != null && now - head.completedAtNanos() > ticketTtlNanos) {
+            if (completed.remove(head)) {
+                tickets.remove(head.id());
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * The status and message the synchronous booking endpoint answers with.
+     */
+    static ErrorResponse rejection(Throwable e) {
+        if (e instanceof SeatUnavailableException || e instanceof ShowtimeClosedException) {
+            return new ErrorResponse(409, "Conflict", e.getMessage());
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return new ErrorResponse(409, "Conflict",
+                    "One or more seats were booked by another user. Please try again.");
+        }
+        if (e instanceof ShowtimeNotFoundException) {
+            return new ErrorResponse(404, "Not Found", e.getMessage());
+        }
+        return new ErrorResponse(500, "Internal Server Error", "The booking could not be completed.");
+    }
+
+    private record Pending(BookingTicket ticket, SeatMap seats) {
+    }
+
+    /**
+     * Queue of one showtime. At most one writer drains it at a time. The
+     * writer gives the lane up only inside {@code lanes.compute}, where it
+     * clears its flag and drops the lane in one step if the queue is empty, so
+     * a booking is never queued on a dropped lane and a new lane is never
+     * created while the old one is still being drained.
+     */
+    private final class Lane {
+
+        private final UUID showtimeId;
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Lane(UUID showtimeId) {
+            this.showtimeId = showtimeId;
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shut down after the booking was queued
+                    draining.set(false);
+                    rejectQueued();
+                }
+            }
+        }
+
+        void rejectQueued() {
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                complete(pending, null, SHUTTING_DOWN);
+            }
+        }
+
+        private void drain() {
+            boolean retired = false;
+            try {
+                List<Pending> batch = new ArrayList<>(maxBatch);
+                Pending pending;
+                while (!stopped) {
+                    while (batch.size() < maxBatch && (pending = queue.poll()) != null) {
+                        batch.add(pending);
+                    }
+                    if (batch.isEmpty()) {
+                        if (retire()) {
+                            retired = true;
+                            return;
+                        }
+                        // A booking was queued after the last poll
+                        continue;
+                    }
+                    process(showtimeId, batch);
+                    batch.clear();
+                }
+            } finally {
+                if (!retired) {
+                    // Stopped, or the drain failed: keep the lane and let the next booking resume it
+                    draining.set(false);
+                    if (stopped) {
+                        rejectQueued();
+                    } else if (!queue.isEmpty()) {
+                        schedule();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Drops the lane and clears the draining flag if the queue is empty.
+         * Runs under the same map lock as {@link #submit}, so no booking can be
+         * queued in between.
+         *
+         * @return whether the lane was dropped
+         */
+        private boolean retire() {
+            lanes.compute(showtimeId, (id, lane) -> {
+                if (!queue.isEmpty()) {
+                    return lane;
+                }
+                draining.set(false);
+                return lane == this ? null : lane;
+            });
+            // Only this writer clears the flag, and nothing sets it again on a dropped lane
+            return !draining.get();
+        }
+    }
+}
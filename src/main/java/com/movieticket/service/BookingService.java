@@ -2,22 +2,24 @@ package com.movieticket.service;
 
 import com.movieticket.dto.BookingRequest;
 import com.movieticket.dto.ReservationDto;
-import com.movieticket.entity.Reservation;
-import com.movieticket.entity.ReservedSeat;
-import com.movieticket.entity.Showtime;
 import com.movieticket.exception.InvalidSeatException;
 import com.movieticket.exception.ReservationNotFoundException;
 import com.movieticket.exception.SeatUnavailableException;
 import com.movieticket.exception.ShowtimeNotFoundException;
-import com.movieticket.repository.ReservationRepository;
-import com.movieticket.repository.ReservedSeatRepository;
+import com.movieticket.repository.CancelledSeat;
+import com.movieticket.repository.ReservationCancellation;
 import com.movieticket.repository.ShowtimeRepository;
-import com.movieticket.util.SeatLayout;
+import com.movieticket.util.SeatMap;
+import com.movieticket.util.SeatSelection;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,80 +27,156 @@ import java.util.stream.Collectors;
 @Service
 public class BookingService {
 
+    private final BookingCoalescer bookingCoalescer;
+    private final ReservationCancellation reservationCancellation;
+    private final SeatInventory seatInventory;
+    private final SeatHoldService seatHoldService;
+    private final IdempotencyStore idempotencyStore;
     private final ShowtimeRepository showtimeRepository;
-    private final ReservationRepository reservationRepository;
-    private final ReservedSeatRepository reservedSeatRepository;
 
-    public BookingService(ShowtimeRepository showtimeRepository,
-                          ReservationRepository reservationRepository,
-                          ReservedSeatRepository reservedSeatRepository) {
+    public BookingService(BookingCoalescer bookingCoalescer,
+                          ReservationCancellation reservationCancellation,
+                          SeatInventory seatInventory,
+                          SeatHoldService seatHoldService,
+                          IdempotencyStore idempotencyStore,
+                          ShowtimeRepository showtimeRepository) {
+        this.bookingCoalescer = bookingCoalescer;
+        this.reservationCancellation = reservationCancellation;
+        this.seatInventory = seatInventory;
+        this.seatHoldService = seatHoldService;
+        this.idempotencyStore = idempotencyStore;
         this.showtimeRepository = showtimeRepository;
-        this.reservationRepository = reservationRepository;
-        this.reservedSeatRepository = reservedSeatRepository;
     }
 
-    @Transactional
     public ReservationDto createBooking(BookingRequest request) {
-        Showtime showtime = showtimeRepository.findById(request.showtimeId())
-                .orElseThrow(() -> new ShowtimeNotFoundException(request.showtimeId()));
-
-        List<String> invalidSeats = request.seatIds().stream()
-                .filter(s -> !SeatLayout.isValidSeatId(s))
-                .toList();
-        if (!invalidSeats.isEmpty()) {
-            throw new InvalidSeatException(invalidSeats);
-        }
+        return createBooking(request, null);
+    }
 
-        Set<String> uniqueSeats = new HashSet<>(request.seatIds());
-        if (uniqueSeats.size() != request.seatIds().size()) {
-            throw new InvalidSeatException("Duplicate seat IDs in request");
+    /**
+     * Seats are claimed in {@link SeatInventory} before a transaction is opened,
+     * so requests that lose the race for a seat never reach the database. The
+     * write itself is group-committed with concurrent bookings by
+     * {@link BookingCoalescer}.
+     * <p>
+     * With an idempotency key, a repeat of an earlier successful request returns
+     * the original reservation without booking again; see {@link IdempotencyStore}.
+     */
+    public ReservationDto createBooking(BookingRequest request, String idempotencyKey) {
+        SeatMap requestedSeats = parseSeats(request.seatIds());
+
+        UUID showtimeId = request.showtimeId();
+        if (idempotencyKey == null) {
+            return claimAndBook(showtimeId, requestedSeats, null);
         }
+        return idempotencyStore.execute(idempotencyKey, showtimeId, requestedSeats,
+                () -> claimAndBook(showtimeId, requestedSeats, idempotencyKey));
+    }
 
-        Set<String> takenSeats = reservedSeatRepository.findByShowtimeId(showtime.getId()).stream()
-                .map(ReservedSeat::getSeatId)
-                .collect(Collectors.toSet());
+    /**
+     * Turns a seat hold into a booking. The held seats stay claimed throughout,
+     * so confirming can only fail if the hold has expired or the write fails.
+     */
+    public ReservationDto confirmHold(UUID holdId) {
+        SeatHold hold = seatHoldService.take(holdId);
+        return book(new ReservationWriter.Booking(hold.showtimeId(), hold.seats()));
+    }
 
-        List<String> alreadyTaken = request.seatIds().stream()
-                .filter(takenSeats::contains)
-                .toList();
-        if (!alreadyTaken.isEmpty()) {
-            throw new SeatUnavailableException(alreadyTaken);
+    /**
+     * Deletes the reservation and its seats with bulk statements, without loading
+     * them; the freed seats are released from the inventory once the delete commits.
+     */
+    @Transactional
+    public void cancelBooking(UUID confirmationId) {
+        List<CancelledSeat> freed = reservationCancellation.cancel(List.of(confirmationId));
+        if (freed.isEmpty()) {
+            throw new ReservationNotFoundException(confirmationId);
         }
+        releaseAfterCommit(freed);
+    }
 
-        Reservation reservation = new Reservation(showtime);
-
-        for (String seatId : request.seatIds()) {
-            ReservedSeat rs = new ReservedSeat(reservation, showtime, seatId);
-            reservation.getReservedSeats().add(rs);
+    /**
+     * Cancels a batch of reservations in one transaction, as {@link #cancelBooking}
+     * does for one. Unknown confirmation ids are skipped.
+     *
+     * @return the freed seats
+     */
+    @Transactional
+    public List<CancelledSeat> cancelBookings(Collection<UUID> confirmationIds) {
+        List<CancelledSeat> freed = reservationCancellation.cancel(confirmationIds);
+        if (!freed.isEmpty()) {
+            releaseAfterCommit(freed);
         }
+        return freed;
+    }
 
-        reservation = reservationRepository.save(reservation);
+    /**
+     * Stops selling the showtime: new bookings and holds are refused by the
+     * inventory, and a booking claimed before that but not yet written is
+     * refused by {@link ReservationWriter}. Once this returns, every
+     * reservation the showtime will ever have is in the table.
+     */
+    @Transactional
+    public void closeSales(UUID showtimeId) {
+        if (showtimeRepository.closeSales(showtimeId) == 0) {
+            throw new ShowtimeNotFoundException(showtimeId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatInventory.close(showtimeId);
+            }
+        });
+    }
 
-        return toDto(reservation);
+    private ReservationDto claimAndBook(UUID showtimeId, SeatMap seats, String idempotencyKey) {
+        List<String> alreadyTaken = seatInventory.claim(showtimeId, seats);
+        if (!alreadyTaken.isEmpty()) {
+            throw new SeatUnavailableException(alreadyTaken);
+        }
+        return book(new ReservationWriter.Booking(showtimeId, seats, idempotencyKey));
     }
 
-    @Transactional
-    public void cancelBooking(UUID confirmationId) {
-        Reservation reservation = reservationRepository.findByConfirmationId(confirmationId)
-                .orElseThrow(() -> new ReservationNotFoundException(confirmationId));
+    /**
+     * Writes the reservation for seats already claimed in the inventory, handing
+     * the claim back if the write fails. A write that failed on the unique
+     * constraint found seats reserved that the inventory had free, so the claim
+     * is reconciled with the table rather than released.
+     */
+    private ReservationDto book(ReservationWriter.Booking booking) {
+        try {
+            return bookingCoalescer.write(booking);
+        } catch (DataIntegrityViolationException e) {
+            seatInventory.reconcile(booking.showtimeId(), booking.seats());
+            throw e;
+        } catch (RuntimeException | Error e) {
+            seatInventory.release(booking.showtimeId(), booking.seats());
+            throw e;
+        }
+    }
 
-        reservationRepository.delete(reservation);
+    private void releaseAfterCommit(List<CancelledSeat> freed) {
+        Map<UUID, List<String>> seatsByShowtime = freed.stream()
+                .collect(Collectors.groupingBy(CancelledSeat::showtimeId,
+                        Collectors.mapping(CancelledSeat::seatId, Collectors.toList())));
+        Set<UUID> confirmationIds = freed.stream().map(CancelledSeat::confirmationId).collect(Collectors.toSet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatsByShowtime.forEach((showtimeId, seatIds) ->
+                        seatInventory.release(showtimeId, SeatMap.of(seatIds)));
+                idempotencyStore.forget(confirmationIds);
+            }
+        });
     }
 
-    private ReservationDto toDto(Reservation r) {
-        Showtime s = r.getShowtime();
-        return new ReservationDto(
-                r.getConfirmationId(),
-                s.getId(),
-                s.getMovie().getTitle(),
-                s.getScreen().getTheater().getName(),
-                s.getScreen().getLabel(),
-                s.getDateTime(),
-                r.getReservedSeats().stream()
-                        .map(ReservedSeat::getSeatId)
-                        .sorted()
-                        .toList(),
-                r.getCreatedAt()
-        );
+    static SeatMap parseSeats(List<String> seatIds) {
+        SeatSelection selection = SeatSelection.parse(seatIds);
+        if (!selection.invalidSeatIds().isEmpty()) {
+            throw new InvalidSeatException(selection.invalidSeatIds());
+        }
+        if (selection.hasDuplicates()) {
+            throw new InvalidSeatException("Duplicate seat IDs in request");
+        }
+        return selection.seats();
     }
 }
@@ -0,0 +1,66 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.BookingTicketDto;
+import com.movieticket.dto.BookingTicketDto.Status;
+import com.movieticket.dto.ErrorResponse;
+import com.movieticket.dto.ReservationDto;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One asynchronous booking, from acceptance until its result is collected or
+ * expires. Completed exactly once, by the sequencer of its showtime.
+ */
+final class BookingTicket {
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID showtimeId;
+    private final CompletableFuture<BookingTicketDto> result = new CompletableFuture<>();
+    private volatile long completedAtNanos;
+
+    BookingTicket(UUID showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    long completedAtNanos() {
+        return completedAtNanos;
+    }
+
+    /**
+     * Completes with the current state once it is final, or with PENDING once
+     * {@code waitMillis} pass; immediately if {@code waitMillis} is zero.
+     */
+    CompletableFuture<BookingTicketDto> await(long waitMillis) {
+        if (result.isDone() || waitMillis <= 0) {
+            return CompletableFuture.completedFuture(current());
+        }
+        return result.copy().completeOnTimeout(pending(), waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    BookingTicketDto current() {
+        return result.getNow(pending());
+    }
+
+    void confirm(ReservationDto reservation) {
+        complete(new BookingTicketDto(id, showtimeId, Status.CONFIRMED, reservation, null));
+    }
+
+    void reject(ErrorResponse error) {
+        complete(new BookingTicketDto(id, showtimeId, Status.REJECTED, null, error));
+    }
+
+    private void complete(BookingTicketDto outcome) {
+        completedAtNanos = System.nanoTime();
+        result.complete(outcome);
+    }
+
+    private BookingTicketDto pending() {
+        return new BookingTicketDto(id, showtimeId, Status.PENDING, null, null);
+    }
+}
@@ -0,0 +1,165 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.BulkCancellationRequest;
+import com.movieticket.dto.CancellationJobDto;
+import com.movieticket.exception.CancellationJobNotFoundException;
+import com.movieticket.exception.InvalidBulkCancellationException;
+import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.repository.CancelledSeat;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cancels every reservation of a set of showtimes in the background, e.g. when
+ * a screen goes down: the showtimes are given by id, or as a time range on
+ * one screen. Each showtime's sales are closed first
+ * ({@link BookingService#closeSales}), so no booking lands behind the job, and
+ * the showtime is then emptied in chunks of
+ * {@code movieticket.cancellations.chunk-size} reservations, and each chunk is
+ * its own short transaction through {@link BookingService#cancelBookings}. Row
+ * locks are therefore held for one chunk at a time and only on the showtime
+ * being cancelled, so live bookings for other showtimes are never blocked. Freed
+ * seats are released from the inventory, and streamed to seat subscribers,
+ * as each chunk commits.
+ * <p>
+ * Jobs run one at a time on a single worker thread. Progress is kept in memory
+ * and finished jobs are forgotten after {@link #RETENTION}.
+ */
+@Service
+public class BulkCancellationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCancellationService.class);
+
+    static final Duration RETENTION = Duration.ofHours(24);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final ScreenRepository screenRepository;
+    private final ReservationRepository reservationRepository;
+    private final BookingService bookingService;
+    private final int chunkSize;
+    private final ConcurrentMap<UUID, CancellationJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService worker;
+
+    public BulkCancellationService(ShowtimeRepository showtimeRepository,
+                                   ScreenRepository screenRepository,
+                                   ReservationRepository reservationRepository,
+                                   BookingService bookingService,
+                                   @Value("${movieticket.cancellations.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("movieticket.cancellations.chunk-size must be positive");
+        }
+        this.showtimeRepository = showtimeRepository;
+        this.screenRepository = screenRepository;
+        this.reservationRepository = reservationRepository;
+        this.bookingService = bookingService;
+        this.chunkSize = chunkSize;
+        this.worker = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("bulk-cancellation")
+                .daemon(true)
+                .factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Resolves the showtimes and queues the job. A range is always scoped to
+     * one screen. Unknown showtime ids and screens are rejected up front,
+     * before anything is cancelled.
+     */
+    public CancellationJobDto submit(BulkCancellationRequest request) {
+        CancellationJob job = new CancellationJob(resolveShowtimes(request));
+        forgetFinishedJobs();
+        jobs.put(job.id(), job);
+        worker.execute(() -> run(job));
+        return job.toDto();
+    }
+
+    public CancellationJobDto getJob(UUID jobId) {
+        CancellationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new CancellationJobNotFoundException(jobId);
+        }
+        return job.toDto();
+    }
+
+    private List<UUID> resolveShowtimes(BulkCancellationRequest request) {
+        boolean byIds = request.showtimeIds() != null && !request.showtimeIds().isEmpty();
+        boolean byRange = request.screenId() != null || request.from() != null || request.to() != null;
+        if (byIds == byRange) {
+            throw new InvalidBulkCancellationException("Specify either showtimeIds or a screenId with a from/to range");
+        }
+        if (byRange) {
+            if (request.screenId() == null) {
+                throw new InvalidBulkCancellationException("A from/to range requires a screenId");
+            }
+            if (request.from() == null || request.to() == null || !request.from().isBefore(request.to())) {
+                throw new InvalidBulkCancellationException("from and to are both required, with from before to");
+            }
+            if (!screenRepository.existsById(request.screenId())) {
+                throw new InvalidBulkCancellationException("Unknown screen " + request.screenId());
+            }
+            return showtimeRepository.findIdsByScreenIdAndDateTimeBetween(
+                    request.screenId(), request.from(), request.to());
+        }
+
+        LinkedHashSet<UUID> requested = new LinkedHashSet<>(request.showtimeIds());
+        List<UUID> existing = showtimeRepository.findExistingIds(requested);
+        if (existing.size() < requested.size()) {
+            requested.removeAll(new HashSet<>(existing));
+            throw new ShowtimeNotFoundException(requested.iterator().next());
+        }
+        return existing;
+    }
+
+    private void run(CancellationJob job) {
+        job.started();
+        try {
+            for (UUID showtimeId : job.showtimeIds()) {
+                cancelAll(job, showtimeId);
+                job.showtimeDone();
+            }
+            job.completed();
+            log.info("Cancellation job {} finished: {}", job.id(), job.toDto());
+        } catch (RuntimeException e) {
+            log.error("Cancellation job {} failed", job.id(), e);
+            job.failed(e.getMessage());
+        }
+    }
+
+    private void cancelAll(CancellationJob job, UUID showtimeId) {
+        bookingService.closeSales(showtimeId);
+        List<UUID> chunk;
+        while (!(chunk = reservationRepository.findConfirmationIdsByShowtimeId(
+                showtimeId, Limit.of(chunkSize))).isEmpty()) {
+            List<CancelledSeat> freed = bookingService.cancelBookings(chunk);
+            long reservations = freed.stream().map(CancelledSeat::confirmationId).distinct().count();
+            job.chunkCancelled(reservations, freed.size());
+        }
+    }
+
+    private void forgetFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,88 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.CancellationJobDto;
+import com.movieticket.dto.CancellationJobDto.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk cancellation. Written by the job's worker thread and
+ * read by status requests at any time.
+ */
+final class CancellationJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final List<UUID> showtimeIds;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final AtomicInteger showtimesDone = new AtomicInteger();
+    private final AtomicLong reservationsCancelled = new AtomicLong();
+    private final AtomicLong seatsFreed = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    CancellationJob(List<UUID> showtimeIds) {
+        this.showtimeIds = List.copyOf(showtimeIds);
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    List<UUID> showtimeIds() {
+        return showtimeIds;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    LocalDateTime finishedAt() {
+        return finishedAt;
+    }
+
+    void started() {
+        status = Status.RUNNING;
+    }
+
+    void chunkCancelled(long reservations, long seats) {
+        reservationsCancelled.addAndGet(reservations);
+        seatsFreed.addAndGet(seats);
+    }
+
+    void showtimeDone() {
+        showtimesDone.incrementAndGet();
+    }
+
+    void completed() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void failed(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    CancellationJobDto toDto() {
+        return new CancellationJobDto(
+                id,
+                status,
+                showtimeIds.size(),
+                showtimesDone.get(),
+                reservationsCancelled.get(),
+                seatsFreed.get(),
+                submittedAt,
+                finishedAt,
+                error
+        );
+    }
+
+    private void finish(Status finalStatus, String message) {
+        error = message;
+        status = finalStatus;
+        finishedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,203 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.entity.IdempotencyKey;
+import com.movieticket.exception.IdempotencyKeyReusedException;
+import com.movieticket.exception.InvalidIdempotencyKeyException;
+import com.movieticket.exception.ReservationNotFoundException;
+import com.movieticket.repository.IdempotencyKeyRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.util.ExpiringCache;
+import com.movieticket.util.SeatMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates bookings made with an {@code Idempotency-Key}, so a client
+ * retrying a booking gets the original reservation back instead of a second
+ * booking or a 409.
+ * <p>
+ * Keys are looked up in three places, cheapest first: an in-memory cache of
+ * recent results, bookings still in flight on this instance (a retry waits for
+ * the original rather than racing it), and the {@code idempotency_keys} table,
+ * which {@link ReservationWriter} writes in the same transaction as the
+ * reservation. The table makes replays survive restarts and work across
+ * instances; its rows are purged once older than
+ * {@code movieticket.bookings.idempotency.ttl}.
+ * <p>
+ * Only successful bookings are remembered: a retry of a booking that failed
+ * is attempted again. Cancelled bookings are dropped from the cache as the
+ * cancellation commits ({@link #forget}), so their replay finds the key in the
+ * table and the reservation gone.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ReservationRepository reservationRepository;
+    private final Duration ttl;
+    private final ExpiringCache<String, Recent> recent;
+    // The key each cached reservation was made with, to drop it on cancellation
+    private final ExpiringCache<UUID, String> keysByConfirmationId;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                            ReservationRepository reservationRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${movieticket.bookings.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${movieticket.bookings.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.reservationRepository = reservationRepository;
+        this.ttl = ttl;
+        this.recent = new ExpiringCache<>(cacheSize, ttl);
+        this.keysByConfirmationId = new ExpiringCache<>(cacheSize, ttl);
+        this.replays = Counter.builder("bookings.idempotent.replays")
+                .description("Bookings answered from an earlier request with the same idempotency key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the reservation already made for {@code key}, or makes it with
+     * {@code booking}, which must record the key through {@link ReservationWriter}.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for other seats or another showtime
+     */
+    public ReservationDto execute(String key, UUID showtimeId, SeatMap seats, Supplier<ReservationDto> booking) {
+        if (key.isBlank() || key.length() > IdempotencyKey.MAX_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be 1 to " + IdempotencyKey.MAX_LENGTH + " characters");
+        }
+        String requestHash = requestHash(showtimeId, seats);
+
+        Recent cached = recent.get(key);
+        if (cached != null) {
+            return replay(key, requestHash, cached.requestHash, cached.reservation);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!requestHash.equals(running.requestHash)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+            return replay(key, requestHash, running.requestHash, join(running.result));
+        }
+        try {
+            ReservationDto reservation = findPersisted(key, requestHash).orElseGet(() -> book(key, requestHash, booking));
+            recent.put(key, new Recent(requestHash, reservation));
+            keysByConfirmationId.put(reservation.confirmationId(), key);
+            mine.result.complete(reservation);
+            return reservation;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Drops cancelled reservations from the cache. Called once their
+     * cancellation has committed.
+     */
+    public void forget(Collection<UUID> confirmationIds) {
+        for (UUID confirmationId : confirmationIds) {
+            String key = keysByConfirmationId.remove(confirmationId);
+            if (key != null) {
+                recent.remove(key);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${movieticket.bookings.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public int purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * Identifies the booking a key was used for: the showtime and the seats.
+     */
+    static String requestHash(UUID showtimeId, SeatMap seats) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(showtimeId.toString().getBytes(StandardCharsets.US_ASCII));
+            digest.update(seats.toBitmap());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ReservationDto book(String key, String requestHash, Supplier<ReservationDto> booking) {
+        try {
+            return booking.get();
+        } catch (DataIntegrityViolationException e) {
+            // Another instance recorded the key first
+            return findPersisted(key, requestHash).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<ReservationDto> findPersisted(String key, String requestHash) {
+        return idempotencyKeyRepository.findById(key).map(persisted -> replay(key, requestHash,
+                persisted.getRequestHash(), reservationRepository
+                        .findWithDetailsByConfirmationId(persisted.getConfirmationId())
+                        .map(ReservationWriter::toDto)
+                        // Booked with this key and cancelled since
+                        .orElseThrow(() -> new ReservationNotFoundException(persisted.getConfirmationId()))));
+    }
+
+    private ReservationDto replay(String key, String requestHash, String originalHash, ReservationDto original) {
+        if (!requestHash.equals(originalHash)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        replays.increment();
+        return original;
+    }
+
+    private static ReservationDto join(CompletableFuture<ReservationDto> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Recent(String requestHash, ReservationDto reservation) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<ReservationDto> result) {
+    }
+}
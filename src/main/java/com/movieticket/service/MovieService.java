@@ -1,40 +1,85 @@
 package com.movieticket.service;
 
 import com.movieticket.dto.CreateMovieRequest;
+import com.movieticket.dto.CursorPage;
 import com.movieticket.dto.MovieDto;
 import com.movieticket.dto.UpdateMovieRequest;
 import com.movieticket.entity.Movie;
 import com.movieticket.exception.MovieNotFoundException;
 import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.MovieTitleSearch;
+import com.movieticket.util.PageCursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class MovieService {
 
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_SEARCH_LIMIT = 200;
+
     private final MovieRepository movieRepository;
+    private final MovieTitleSearch movieTitleSearch;
+    private final MovieTitleIndex movieTitleIndex;
 
-    public MovieService(MovieRepository movieRepository) {
+    public MovieService(MovieRepository movieRepository, MovieTitleSearch movieTitleSearch,
+                        MovieTitleIndex movieTitleIndex) {
         this.movieRepository = movieRepository;
+        this.movieTitleSearch = movieTitleSearch;
+        this.movieTitleIndex = movieTitleIndex;
     }
 
-    public List<MovieDto> searchMovies(String title) {
-        List<Movie> movies;
+    /**
+     * Lists all movies when {@code title} is blank, otherwise runs a ranked title
+     * search. {@code prefix} switches to type-ahead matching on word starts, which
+     * is answered from the in-memory {@link MovieTitleIndex}.
+     */
+    public List<MovieDto> searchMovies(String title, boolean prefix, Integer limit) {
         if (title == null || title.isBlank()) {
-            movies = movieRepository.findAll();
-        } else {
-            movies = movieRepository.findByTitleContainingIgnoreCase(title);
+            return movieRepository.findAll().stream()
+                    .map(m -> new MovieDto(m.getId(), m.getTitle()))
+                    .toList();
+        }
+        String query = title.strip();
+        int max = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(MAX_SEARCH_LIMIT, limit));
+        return prefix
+                ? movieTitleIndex.search(query, max)
+                : movieTitleSearch.contains(query, max);
+    }
+
+    public CursorPage<MovieDto> getMoviePage(String cursor, Integer pageSize) {
+        int size = PageCursor.pageSize(pageSize);
+        List<MovieDto> movies = cursor == null
+                ? movieRepository.findPage(PageCursor.fetchLimit(size))
+                : movieRepository.findPageAfter(PageCursor.decodeId(cursor), PageCursor.fetchLimit(size));
+
+        if (movies.size() <= size) {
+            return new CursorPage<>(movies, null);
+        }
+        List<MovieDto> page = movies.subList(0, size);
+        return new CursorPage<>(page, PageCursor.encode(page.getLast().id()));
+    }
+
+    /**
+     * Streams every movie in id order, reading from a database cursor so the
+     * catalog is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamMovies(Consumer<? super MovieDto> sink) {
+        try (Stream<MovieDto> movies = movieRepository.streamAll()) {
+            movies.forEachOrdered(sink);
         }
-        return movies.stream()
-                .map(m -> new MovieDto(m.getId(), m.getTitle()))
-                .toList();
     }
 
     public MovieDto createMovie(CreateMovieRequest request) {
         Movie movie = new Movie(request.title());
         Movie savedMovie = movieRepository.save(movie);
+        movieTitleIndex.put(savedMovie.getId(), savedMovie.getTitle());
         return new MovieDto(savedMovie.getId(), savedMovie.getTitle());
     }
 
@@ -44,6 +89,7 @@ public class MovieService {
 
         movie.setTitle(request.title());
         Movie updatedMovie = movieRepository.save(movie);
+        movieTitleIndex.put(updatedMovie.getId(), updatedMovie.getTitle());
         return new MovieDto(updatedMovie.getId(), updatedMovie.getTitle());
     }
 
@@ -51,5 +97,6 @@ public class MovieService {
         Movie movie = movieRepository.findById(movieId)
                 .orElseThrow(() -> new MovieNotFoundException(movieId));
         movieRepository.delete(movie);
+        movieTitleIndex.remove(movieId);
     }
 }
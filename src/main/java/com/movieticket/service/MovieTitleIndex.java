@@ -0,0 +1,51 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.MovieDto;
+import com.movieticket.entity.Movie;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.util.PrefixIndex;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory type-ahead index over movie titles. Built from {@code movies} on
+ * startup and kept current by {@link MovieService} as movies are created,
+ * renamed and deleted, so autocomplete never reaches the database.
+ */
+@Component
+public class MovieTitleIndex implements SmartInitializingSingleton {
+
+    private final MovieRepository movieRepository;
+    private final PrefixIndex index = new PrefixIndex();
+
+    public MovieTitleIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * Runs before the web server starts, so no search sees a partial index.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Movie movie : movieRepository.findAll()) {
+            index.put(movie.getId(), movie.getTitle());
+        }
+    }
+
+    public List<MovieDto> search(String query, int limit) {
+        return index.search(query, limit).stream()
+                .map(match -> new MovieDto(match.id(), match.title()))
+                .toList();
+    }
+
+    public void put(UUID movieId, String title) {
+        index.put(movieId, title);
+    }
+
+    public void remove(UUID movieId) {
+        index.remove(movieId);
+    }
+}
@@ -0,0 +1,141 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.entity.IdempotencyKey;
+import com.movieticket.entity.Reservation;
+import com.movieticket.entity.ReservedSeat;
+import com.movieticket.entity.Showtime;
+import com.movieticket.exception.ShowtimeClosedException;
+import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.repository.IdempotencyKeyRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.util.SeatMap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes reservations for seats already claimed in {@link SeatInventory}. Any
+ * number of bookings, for any showtimes, go out in one transaction: one query
+ * for the showtimes, batched inserts for the reservations and their seats, and
+ * one seats-sold update per showtime, plus a batched insert of the idempotency
+ * keys of bookings that came with one.
+ */
+@Component
+public class ReservationWriter {
+
+    /**
+     * Seats claimed for one reservation, and the client's idempotency key for
+     * it, if any.
+     */
+    public record Booking(UUID showtimeId, SeatMap seats, String idempotencyKey) {
+
+        public Booking(UUID showtimeId, SeatMap seats) {
+            this(showtimeId, seats, null);
+        }
+    }
+
+    // The order PostgreSQL and H2 sort uuid columns in: unsigned, byte by byte
+    private static final Comparator<UUID> DATABASE_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final ReservationRepository reservationRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    public ReservationWriter(ShowtimeRepository showtimeRepository,
+                             ReservationRepository reservationRepository,
+                             IdempotencyKeyRepository idempotencyKeyRepository) {
+        this.showtimeRepository = showtimeRepository;
+        this.reservationRepository = reservationRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+    }
+
+    /**
+     * Writes all bookings or none of them.
+     *
+     * @return the reservations, in the order of {@code bookings}
+     */
+    @Transactional
+    public List<ReservationDto> write(List<Booking> bookings) {
+        // Showtime rows are updated in one global order, so two groups writing to
+        // the same showtimes cannot each hold a row lock the other is waiting for
+        Map<UUID, Integer> seatsSold = new TreeMap<>(DATABASE_ORDER);
+        for (Booking booking : bookings) {
+            seatsSold.merge(booking.showtimeId(), booking.seats().size(), Integer::sum);
+        }
+        Map<UUID, Showtime> showtimes = showtimeRepository.findWithDetailsByIdIn(seatsSold.keySet()).stream()
+                .collect(Collectors.toMap(Showtime::getId, Function.identity()));
+        for (UUID showtimeId : seatsSold.keySet()) {
+            if (!showtimes.containsKey(showtimeId)) {
+                throw new ShowtimeNotFoundException(showtimeId);
+            }
+        }
+
+        // With JDBC batching and insert ordering the reservations, then all of
+        // their seats, go out as batches instead of one round trip per row
+        List<Reservation> reservations = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            Showtime showtime = showtimes.get(booking.showtimeId());
+            Reservation reservation = new Reservation(showtime);
+            for (String seatId : booking.seats().seatIds()) {
+                reservation.getReservedSeats().add(new ReservedSeat(reservation, showtime, seatId));
+            }
+            reservations.add(reservation);
+        }
+        reservations = reservationRepository.saveAll(reservations);
+
+        // In the same transaction, so a key is recorded if and only if its booking is
+        List<IdempotencyKey> keys = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (booking.idempotencyKey() != null) {
+                keys.add(new IdempotencyKey(booking.idempotencyKey(),
+                        IdempotencyStore.requestHash(booking.showtimeId(), booking.seats()),
+                        reservations.get(i).getConfirmationId()));
+            }
+        }
+        if (!keys.isEmpty()) {
+            idempotencyKeyRepository.saveAll(keys);
+        }
+
+        // Incremented in the database rather than on the loaded entities, so
+        // concurrent bookings for a showtime cannot lose each other's updates.
+        // The update waits on the row lock of a concurrent closeSales, so a
+        // booking either commits before the close or is refused by it.
+        seatsSold.forEach((showtimeId, seats) -> {
+            if (showtimeRepository.addSeatsSoldIfOpen(showtimeId, seats) == 0) {
+                throw new ShowtimeClosedException(showtimeId);
+            }
+        });
+
+        return reservations.stream().map(ReservationWriter::toDto).toList();
+    }
+
+    static ReservationDto toDto(Reservation r) {
+        Showtime s = r.getShowtime();
+        return new ReservationDto(
+                r.getConfirmationId(),
+                s.getId(),
+                s.getMovie().getTitle(),
+                s.getScreen().getTheater().getName(),
+                s.getScreen().getLabel(),
+                s.getDateTime(),
+                r.getReservedSeats().stream()
+                        .map(ReservedSeat::getSeatId)
+                        .sorted()
+                        .toList(),
+                r.getCreatedAt()
+        );
+    }
+}
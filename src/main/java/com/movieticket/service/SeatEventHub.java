@@ -0,0 +1,255 @@
+package com.movieticket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.dto.AvailableSeatsResponse;
+import com.movieticket.dto.SeatDeltaDto;
+import com.movieticket.util.SeatMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes seat availability changes to server-sent event subscribers, in the
+ * order the changes were made. Each change is serialized once, however many
+ * subscribers it goes to.
+ * <p>
+ * {@link SeatInventory} publishes while holding the showtime's lock and
+ * {@link #register} is called under the same lock, so a subscriber's snapshot
+ * and the deltas that follow it never overlap or leave a gap. Deltas are
+ * buffered until the caller {@linkplain Registration#start starts} the stream
+ * with its emitter and snapshot, which goes out first. Publishing only
+ * appends to each subscriber's own queue; writing to clients happens later,
+ * never under the lock, and one slow client does not hold up the others. A
+ * client that falls {@code movieticket.seats.stream.buffer} events behind is
+ * dropped: its stream is completed, and reconnecting gets a fresh snapshot.
+ */
+@Component
+public class SeatEventHub {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String TAKEN = "taken";
+    static final String RELEASED = "released";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final ConcurrentMap<UUID, List<Registration>> channels = new ConcurrentHashMap<>();
+    private final ExecutorService delivery = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter dropped;
+
+    public SeatEventHub(ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${movieticket.seats.stream.buffer:256}") int bufferSize) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.dropped = Counter.builder("seats.stream.dropped")
+                .description("Seat stream subscribers dropped for falling too far behind")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        delivery.shutdownNow();
+        channels.values().forEach(registrations -> registrations.forEach(Registration::complete));
+    }
+
+    /**
+     * Must be called with the showtime's {@link SeatInventory} lock held.
+     */
+    Registration register(UUID showtimeId) {
+        Registration registration = new Registration(showtimeId);
+        channels.compute(showtimeId, (id, registrations) -> {
+            List<Registration> list = registrations == null ? new CopyOnWriteArrayList<>() : registrations;
+            list.add(registration);
+            return list;
+        });
+        return registration;
+    }
+
+    /**
+     * Must be called with the showtime's {@link SeatInventory} lock held.
+     */
+    void seatsTaken(UUID showtimeId, SeatMap seats) {
+        publish(showtimeId, TAKEN, seats);
+    }
+
+    /**
+     * Must be called with the showtime's {@link SeatInventory} lock held.
+     */
+    void seatsReleased(UUID showtimeId, SeatMap seats) {
+        publish(showtimeId, RELEASED, seats);
+    }
+
+    int channelCount() {
+        return channels.size();
+    }
+
+    int subscriberCount(UUID showtimeId) {
+        List<Registration> registrations = channels.get(showtimeId);
+        return registrations == null ? 0 : registrations.size();
+    }
+
+    private void publish(UUID showtimeId, String name, SeatMap seats) {
+        List<Registration> registrations = channels.get(showtimeId);
+        if (registrations == null || seats.isEmpty()) {
+            return;
+        }
+        Event event = new Event(name, new SeatDeltaDto(showtimeId, seats.seatIds()));
+        for (Registration registration : registrations) {
+            registration.offer(event);
+        }
+    }
+
+    /**
+     * A change to send, serialized by whichever subscriber sends it first.
+     */
+    private final class Event {
+
+        private final String name;
+        private final Object payload;
+        private volatile Set<ResponseBodyEmitter.DataWithMediaType> data;
+
+        Event(String name, Object payload) {
+            this.name = name;
+            this.payload = payload;
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> data() {
+            Set<ResponseBodyEmitter.DataWithMediaType> built = data;
+            if (built == null) {
+                try {
+                    built = SseEmitter.event()
+                            .name(name)
+                            .data(objectMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON)
+                            .build();
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+                data = built;
+            }
+            return built;
+        }
+    }
+
+    /**
+     * One client's stream and its bounded queue of events not yet written,
+     * drained by at most one delivery thread at a time once started.
+     */
+    final class Registration {
+
+        private final UUID showtimeId;
+        private final BlockingDeque<Event> pending = new LinkedBlockingDeque<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Completion, timeout and error callbacks can all fire; only the first counts
+        private final AtomicBoolean active = new AtomicBoolean(true);
+        private volatile SseEmitter emitter;
+
+        private Registration(UUID showtimeId) {
+            this.showtimeId = showtimeId;
+        }
+
+        /**
+         * Sends {@code snapshot} on the emitter, then every change buffered
+         * since registering and every change after.
+         */
+        void start(SseEmitter emitter, AvailableSeatsResponse snapshot) {
+            emitter.onCompletion(this::unsubscribe);
+            emitter.onTimeout(this::unsubscribe);
+            emitter.onError(error -> unsubscribe());
+            if (!pending.offerFirst(new Event(SNAPSHOT, snapshot))) {
+                overflow();
+            }
+            this.emitter = emitter;
+            if (!active.get()) {
+                // Dropped before it started
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void offer(Event event) {
+            if (!pending.offer(event)) {
+                overflow();
+                return;
+            }
+            if (emitter != null) {
+                scheduleDrain();
+            }
+        }
+
+        private void overflow() {
+            // Too far behind to catch up; a reconnect starts from a fresh snapshot
+            if (unsubscribe()) {
+                dropped.increment();
+                pending.clear();
+                SseEmitter started = emitter;
+                if (started != null) {
+                    delivery.execute(started::complete);
+                }
+            }
+        }
+
+        private void complete() {
+            SseEmitter started = emitter;
+            if (started != null) {
+                started.complete();
+            }
+        }
+
+        private boolean unsubscribe() {
+            if (!active.compareAndSet(true, false)) {
+                return false;
+            }
+            channels.computeIfPresent(showtimeId, (id, registrations) -> {
+                registrations.remove(this);
+                return registrations.isEmpty() ? null : registrations;
+            });
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (active.get() && (event = pending.poll()) != null) {
+                    emitter.send(event.data());
+                }
+            } catch (IOException | RuntimeException e) {
+                // Client went away, or the event could not be written
+                unsubscribe();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+                // An event may have been queued after the last poll but before the flag cleared
+                if (active.get() && !pending.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+}
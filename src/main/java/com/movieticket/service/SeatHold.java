@@ -0,0 +1,24 @@
+package com.movieticket.service;
+
+import com.movieticket.util.SeatMap;
+import com.movieticket.util.TimingWheel;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Seats claimed in {@link SeatInventory} on behalf of a client until the hold is
+ * confirmed, released or expires. {@code timeout} is null only between the hold
+ * being stored and its expiry being scheduled.
+ */
+record SeatHold(UUID id, UUID showtimeId, SeatMap seats, LocalDateTime expiresAt,
+                long deadlineNanos, TimingWheel.Timeout<UUID> timeout) {
+
+    SeatHold withTimeout(TimingWheel.Timeout<UUID> timeout) {
+        return new SeatHold(id, showtimeId, seats, expiresAt, deadlineNanos, timeout);
+    }
+
+    boolean isExpired(long nowNanos) {
+        return nowNanos - deadlineNanos >= 0;
+    }
+}
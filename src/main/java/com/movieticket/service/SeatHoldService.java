@@ -0,0 +1,163 @@
+package com.movieticket.service;
+
+import com.movieticket.dto.SeatHoldDto;
+import com.movieticket.dto.SeatHoldRequest;
+import com.movieticket.exception.HoldLimitExceededException;
+import com.movieticket.exception.HoldNotFoundException;
+import com.movieticket.exception.SeatUnavailableException;
+import com.movieticket.util.SeatMap;
+import com.movieticket.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived holds on seats. A hold claims its seats in {@link SeatInventory}
+ * exactly like a booking does, so held seats are unavailable to listings and to
+ * other bookings until the hold is confirmed, released or expires.
+ * <p>
+ * Expiry is driven by an in-memory {@link TimingWheel} advanced by a single
+ * background thread; confirming or releasing a hold just cancels its timeout.
+ * Holds are not persisted: a restart drops them and frees their seats.
+ * <p>
+ * A showtime has at most {@code movieticket.holds.max-per-showtime} holds at a
+ * time, so one client cannot keep a whole showtime held by renewing holds.
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 1024;
+
+    private final SeatInventory seatInventory;
+    private final Duration ttl;
+    private final int maxHoldsPerShowtime;
+    private final ConcurrentMap<UUID, SeatHold> holds = new ConcurrentHashMap<>();
+    // Active holds per showtime; a showtime with none has no entry
+    private final ConcurrentMap<UUID, Integer> holdsPerShowtime = new ConcurrentHashMap<>();
+    private final TimingWheel<UUID> expiries;
+    private final ScheduledExecutorService ticker;
+
+    public SeatHoldService(SeatInventory seatInventory,
+                           @Value("${movieticket.holds.ttl:PT5M}") Duration ttl,
+                           @Value("${movieticket.holds.max-per-showtime:100}") int maxHoldsPerShowtime) {
+        this.seatInventory = seatInventory;
+        this.ttl = ttl;
+        this.maxHoldsPerShowtime = maxHoldsPerShowtime;
+        this.expiries = new TimingWheel<>(TICK_MILLIS, TimeUnit.MILLISECONDS, WHEEL_SIZE, System.nanoTime());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("seat-hold-expiry")
+                .daemon(true)
+                .factory());
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    public SeatHoldDto hold(SeatHoldRequest request) {
+        SeatMap seats = BookingService.parseSeats(request.seatIds());
+
+        UUID showtimeId = request.showtimeId();
+        countHold(showtimeId);
+        List<String> alreadyTaken;
+        try {
+            alreadyTaken = seatInventory.claim(showtimeId, seats);
+        } catch (RuntimeException e) {
+            uncountHold(showtimeId);
+            throw e;
+        }
+        if (!alreadyTaken.isEmpty()) {
+            uncountHold(showtimeId);
+            throw new SeatUnavailableException(alreadyTaken);
+        }
+
+        UUID holdId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        long deadlineNanos = System.nanoTime() + ttl.toNanos();
+        // Stored before its expiry is scheduled, so the expiry always finds it
+        holds.put(holdId, new SeatHold(holdId, showtimeId, seats, expiresAt, deadlineNanos, null));
+        TimingWheel.Timeout<UUID> timeout = expiries.schedule(holdId, deadlineNanos);
+        holds.computeIfPresent(holdId, (id, hold) -> hold.withTimeout(timeout));
+
+        return new SeatHoldDto(holdId, showtimeId, seats.seatIds(), expiresAt);
+    }
+
+    /**
+     * Removes the hold so the caller can turn its still-claimed seats into a
+     * booking. The caller owns the seats from here on and must release them if
+     * the booking fails.
+     *
+     * @throws HoldNotFoundException if the hold does not exist or has expired
+     */
+    SeatHold take(UUID holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new HoldNotFoundException(holdId);
+        }
+        hold.timeout().cancel();
+        uncountHold(hold.showtimeId());
+        // The wheel fires up to a tick late; a hold past its deadline is already gone
+        if (hold.isExpired(System.nanoTime())) {
+            seatInventory.release(hold.showtimeId(), hold.seats());
+            throw new HoldNotFoundException(holdId);
+        }
+        return hold;
+    }
+
+    public void release(UUID holdId) {
+        SeatHold hold = take(holdId);
+        seatInventory.release(hold.showtimeId(), hold.seats());
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    private void tick() {
+        // An exception escaping here would cancel the schedule and stop all expiry
+        try {
+            expiries.advance(System.nanoTime(), this::expire);
+        } catch (RuntimeException e) {
+            log.error("Seat hold expiry tick failed", e);
+        }
+    }
+
+    private void expire(UUID holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold != null) {
+            uncountHold(hold.showtimeId());
+            seatInventory.release(hold.showtimeId(), hold.seats());
+        }
+    }
+
+    private void countHold(UUID showtimeId) {
+        holdsPerShowtime.compute(showtimeId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxHoldsPerShowtime) {
+                throw new HoldLimitExceededException(showtimeId, maxHoldsPerShowtime);
+            }
+            return current + 1;
+        });
+    }
+
+    private void uncountHold(UUID showtimeId) {
+        holdsPerShowtime.computeIfPresent(showtimeId, (id, count) -> count == 1 ? null : count - 1);
+    }
+}
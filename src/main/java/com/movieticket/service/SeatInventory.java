@@ -0,0 +1,356 @@
+package com.movieticket.service;
+
+import com.movieticket.exception.ShowtimeClosedException;
+import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.repository.ReservedSeatRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.ShowtimeSaleState;
+import com.movieticket.repository.ShowtimeSeat;
+import com.movieticket.util.SeatLayout;
+import com.movieticket.util.SeatMap;
+import com.movieticket.util.StripedLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * In-memory occupancy of active showtimes, kept in front of the
+ * {@code reserved_seats} table. Seats are claimed here before a booking is
+ * written and released when the write fails or the booking is cancelled, so
+ * conflicting requests are rejected without touching the database. A write
+ * that fails on the unique constraint means the table has seats this
+ * inventory missed; that claim is {@linkplain #reconcile reconciled} with the
+ * table instead of released.
+ * <p>
+ * All access to a showtime is serialized by a lock striped on the showtime id,
+ * so bookings for different showtimes never wait on each other (barring a
+ * stripe collision). The database remains the source of truth: upcoming
+ * showtimes are loaded on startup and any other showtime is loaded from
+ * {@code reserved_seats} on first access. Showtimes are evicted once they have
+ * started, every {@code movieticket.seats.evict-interval}.
+ */
+@Component
+public class SeatInventory implements SmartInitializingSingleton {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final ShowtimeRepository showtimeRepository;
+    private final ReservedSeatRepository reservedSeatRepository;
+    private final SeatEventHub seatEventHub;
+    private final ConcurrentMap<UUID, Occupancy> occupancy = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Loading> loading = new ConcurrentHashMap<>();
+    // One counter for all showtimes, so a version is never reused, even after an evict and reload
+    private final AtomicLong versions = new AtomicLong();
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private final Timer lockWait;
+
+    public SeatInventory(ShowtimeRepository showtimeRepository,
+                         ReservedSeatRepository reservedSeatRepository,
+                         SeatEventHub seatEventHub,
+                         MeterRegistry meterRegistry) {
+        this.showtimeRepository = showtimeRepository;
+        this.reservedSeatRepository = reservedSeatRepository;
+        this.seatEventHub = seatEventHub;
+        this.lockWait = Timer.builder("seat.inventory.lock.wait")
+                .description("Time spent waiting for a showtime lock stripe held by another thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs before the web server starts, so no booking can race the initial load.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, Occupancy> loaded = new HashMap<>();
+        for (ShowtimeSaleState showtime : showtimeRepository.findSaleStatesByDateTimeAfter(now)) {
+            loaded.put(showtime.showtimeId(), new Occupancy(new SeatMap(), showtime, versions.incrementAndGet()));
+        }
+        for (ShowtimeSeat seat : reservedSeatRepository.findSeatsForShowtimesAfter(now)) {
+            Occupancy showtime = loaded.get(seat.showtimeId());
+            int index = SeatLayout.indexOf(seat.seatId());
+            if (showtime != null && index >= 0) {
+                showtime.taken.add(index);
+            }
+        }
+        loaded.forEach(occupancy::putIfAbsent);
+    }
+
+    /**
+     * Atomically claims all requested seats, or none of them.
+     *
+     * @return the requested seats that are already taken; empty if the claim succeeded
+     * @throws ShowtimeClosedException if the showtime's sales have been closed
+     */
+    public List<String> claim(UUID showtimeId, SeatMap seats) {
+        Lock lock = lock(showtimeId);
+        try {
+            Occupancy current = occupancyOf(showtimeId, lock);
+            if (current.closed) {
+                throw new ShowtimeClosedException(showtimeId);
+            }
+            if (current.taken.intersects(seats)) {
+                return current.taken.intersection(seats).seatIds();
+            }
+            current.taken.addAll(seats);
+            current.version = versions.incrementAndGet();
+            seatEventHub.seatsTaken(showtimeId, seats);
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(UUID showtimeId, SeatMap seats) {
+        Lock lock = lock(showtimeId);
+        try {
+            Occupancy current = occupancy.get(showtimeId);
+            if (current != null) {
+                SeatMap released = current.taken.intersection(seats);
+                if (!released.isEmpty()) {
+                    current.taken.removeAll(released);
+                    current.version = versions.incrementAndGet();
+                    seatEventHub.seatsReleased(showtimeId, released);
+                }
+            }
+            // A load or reconcile in progress may have read these seats as still taken
+            Loading pending = loading.get(showtimeId);
+            if (pending != null) {
+                pending.released.addAll(seats);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands back a claim whose booking failed on the {@code reserved_seats}
+     * unique constraint, so some of its seats are reserved in the table
+     * although this inventory had them free. The showtime's reserved seats are
+     * read again: those of the claim stay taken and the rest of the claim is
+     * released, and any other reserved seat missing here is taken. Seats taken
+     * here but not in the table are left alone; they may be claims whose
+     * bookings are still being written.
+     */
+    public void reconcile(UUID showtimeId, SeatMap claimed) {
+        Lock lock = lock(showtimeId);
+        try {
+            if (!occupancy.containsKey(showtimeId)) {
+                // Loaded from the table on next access
+                return;
+            }
+            // As in occupancyOf, the stripe is not held during the query and releases made meanwhile are recorded
+            Loading pending = loading.computeIfAbsent(showtimeId, id -> new Loading());
+            pending.loaders++;
+            SeatMap reserved;
+            lock.unlock();
+            try {
+                reserved = SeatMap.of(reservedSeatRepository.findSeatIdsByShowtimeId(showtimeId));
+            } finally {
+                lock.lock();
+                if (--pending.loaders == 0) {
+                    loading.remove(showtimeId);
+                }
+            }
+            reserved.removeAll(pending.released);
+            Occupancy current = occupancy.get(showtimeId);
+            if (current == null) {
+                return;
+            }
+            SeatMap released = current.taken.intersection(claimed);
+            released.removeAll(reserved);
+            SeatMap missing = reserved.copy();
+            missing.removeAll(current.taken);
+            if (released.isEmpty() && missing.isEmpty()) {
+                return;
+            }
+            current.taken.removeAll(released);
+            current.taken.addAll(missing);
+            current.version = versions.incrementAndGet();
+            if (!released.isEmpty()) {
+                seatEventHub.seatsReleased(showtimeId, released);
+            }
+            if (!missing.isEmpty()) {
+                seatEventHub.seatsTaken(showtimeId, missing);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the seats currently taken for the showtime, with the
+     * occupancy version it reflects.
+     */
+    public Snapshot snapshot(UUID showtimeId) {
+        Lock lock = lock(showtimeId);
+        try {
+            Occupancy current = occupancyOf(showtimeId, lock);
+            return new Snapshot(current.taken.copy(), current.version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Subscribes to availability changes for the showtime. The snapshot is taken
+     * and the registration made under the showtime's lock, so the first delta
+     * the registration buffers is the first change after the snapshot.
+     */
+    Subscription subscribe(UUID showtimeId) {
+        Lock lock = lock(showtimeId);
+        try {
+            SeatMap taken = occupancyOf(showtimeId, lock).taken.copy();
+            return new Subscription(taken, seatEventHub.register(showtimeId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refuses every later claim for the showtime. Seats already taken stay
+     * taken until released.
+     */
+    public void close(UUID showtimeId) {
+        Lock lock = lock(showtimeId);
+        try {
+            occupancyOf(showtimeId, lock).closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(UUID showtimeId) {
+        Lock lock = lock(showtimeId);
+        try {
+            occupancy.remove(showtimeId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts showtimes that have started. One booked late is loaded again on
+     * demand and evicted on the next run.
+     *
+     * @return the number of showtimes evicted
+     */
+    @Scheduled(fixedDelayString = "${movieticket.seats.evict-interval:PT5M}")
+    public int evictStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        int evicted = 0;
+        for (Map.Entry<UUID, Occupancy> entry : occupancy.entrySet()) {
+            if (!entry.getValue().startsAt.isAfter(now)) {
+                evict(entry.getKey());
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private Lock lock(UUID showtimeId) {
+        Lock lock = locks.lockFor(showtimeId);
+        // Only contended acquires are timed, so the timer's count is the number of waits
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return lock;
+    }
+
+    /**
+     * Must be called with the showtime's stripe held, as {@code lock}. On a miss
+     * the stripe is released while the showtime is read from the database, so
+     * other showtimes on the stripe are not held up by the query, and held again
+     * to publish it. Releases made meanwhile are recorded in {@link #loading}
+     * and applied to what was read; claims cannot happen before it is
+     * published. If another thread published first, its occupancy is used.
+     */
+    private Occupancy occupancyOf(UUID showtimeId, Lock lock) {
+        Occupancy current = occupancy.get(showtimeId);
+        if (current != null) {
+            return current;
+        }
+        Loading pending = loading.computeIfAbsent(showtimeId, id -> new Loading());
+        pending.loaders++;
+        Occupancy loaded;
+        lock.unlock();
+        try {
+            ShowtimeSaleState showtime = showtimeRepository.findSaleStateById(showtimeId)
+                    .orElseThrow(() -> new ShowtimeNotFoundException(showtimeId));
+            SeatMap taken = SeatMap.of(reservedSeatRepository.findSeatIdsByShowtimeId(showtimeId));
+            loaded = new Occupancy(taken, showtime, 0);
+        } finally {
+            lock.lock();
+            if (--pending.loaders == 0) {
+                loading.remove(showtimeId);
+            }
+        }
+        current = occupancy.get(showtimeId);
+        if (current == null) {
+            loaded.taken.removeAll(pending.released);
+            loaded.version = versions.incrementAndGet();
+            occupancy.put(showtimeId, loaded);
+            current = loaded;
+        }
+        return current;
+    }
+
+    /**
+     * Seats taken at one occupancy version. Versions increase with every change
+     * to any showtime, so equal versions for a showtime mean equal seats.
+     */
+    public record Snapshot(SeatMap taken, long version) {
+    }
+
+    /**
+     * Seats taken when a subscription was made, and the registration that
+     * buffers every change since.
+     */
+    record Subscription(SeatMap taken, SeatEventHub.Registration registration) {
+    }
+
+    /**
+     * Mutable state of one showtime; guarded by the showtime's lock stripe.
+     */
+    private static final class Occupancy {
+
+        private final SeatMap taken;
+        // Read without the lock by evictStarted
+        private final LocalDateTime startsAt;
+        private boolean closed;
+        private long version;
+
+        private Occupancy(SeatMap taken, ShowtimeSaleState showtime, long version) {
+            this.taken = taken;
+            this.startsAt = showtime.dateTime();
+            this.closed = showtime.salesClosed();
+            this.version = version;
+        }
+    }
+
+    /**
+     * Seats released for a showtime while it is being loaded; guarded by the
+     * showtime's lock stripe.
+     */
+    private static final class Loading {
+
+        private final SeatMap released = new SeatMap();
+        private int loaders;
+    }
+}
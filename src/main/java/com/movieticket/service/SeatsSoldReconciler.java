@@ -0,0 +1,84 @@
+package com.movieticket.service;
+
+import com.movieticket.repository.ReservedSeatRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically compares each upcoming showtime's {@code seats_sold} counter
+ * with its rows in {@code reserved_seats} and repairs any drift, e.g. from
+ * manual data fixes or a counter column added to a table that already had
+ * bookings. Showtimes that have started are no longer sold, so they are left
+ * out rather than recounted on every run.
+ * <p>
+ * A showtime is repaired under a row lock on the showtime, which is also taken
+ * by every booking and cancellation when it updates the counter. The recount
+ * therefore sees every booking that has already updated the counter and none
+ * that still has to, so a repair never races an in-flight booking.
+ */
+@Component
+public class SeatsSoldReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatsSoldReconciler.class);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final ReservedSeatRepository reservedSeatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter repairs;
+
+    public SeatsSoldReconciler(ShowtimeRepository showtimeRepository,
+                               ReservedSeatRepository reservedSeatRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.showtimeRepository = showtimeRepository;
+        this.reservedSeatRepository = reservedSeatRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repairs = Counter.builder("showtime.seats.sold.repairs")
+                .description("Showtimes whose seats-sold counter had drifted from reserved_seats")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the number of showtimes repaired
+     */
+    @Scheduled(initialDelayString = "${movieticket.seats-sold.reconcile-initial-delay:PT30S}",
+            fixedDelayString = "${movieticket.seats-sold.reconcile-interval:PT10M}")
+    public int reconcile() {
+        List<UUID> drifted = showtimeRepository.findIdsWithSeatsSoldDriftAfter(LocalDateTime.now());
+        int repaired = 0;
+        for (UUID showtimeId : drifted) {
+            Boolean changed = transactionTemplate.execute(status -> repair(showtimeId));
+            if (Boolean.TRUE.equals(changed)) {
+                repaired++;
+            }
+        }
+        repairs.increment(repaired);
+        return repaired;
+    }
+
+    private boolean repair(UUID showtimeId) {
+        return showtimeRepository.findByIdForUpdate(showtimeId)
+                .map(showtime -> {
+                    int actual = (int) reservedSeatRepository.countByShowtimeId(showtimeId);
+                    if (showtime.getSeatsSold() == actual) {
+                        return false;
+                    }
+                    log.warn("Showtime {} seats-sold counter was {}, reserved seats are {}; repairing",
+                            showtimeId, showtime.getSeatsSold(), actual);
+                    showtime.setSeatsSold(actual);
+                    return true;
+                })
+                .orElse(false);
+    }
+}
@@ -1,77 +1,285 @@
 package com.movieticket.service;
 
+import com.movieticket.dto.AvailableSeatsBitmapResponse;
+import com.movieticket.dto.AvailableSeatsRangesResponse;
 import com.movieticket.dto.AvailableSeatsResponse;
+import com.movieticket.dto.CursorPage;
+import com.movieticket.dto.ShowtimeAvailabilityDto;
 import com.movieticket.dto.ShowtimeDto;
-import com.movieticket.entity.ReservedSeat;
-import com.movieticket.entity.Showtime;
-import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.exception.InvalidAvailabilityQueryException;
+import com.movieticket.exception.InvalidShowtimeQueryException;
 import com.movieticket.repository.ReservedSeatRepository;
 import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.ShowtimeSeat;
+import com.movieticket.repository.ShowtimeSeatCount;
+import com.movieticket.util.PageCursor;
 import com.movieticket.util.SeatLayout;
+import com.movieticket.util.SeatMap;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ShowtimeService {
 
+    // Open-ended windows still bind a real bound, so the same indexed range query is used
+    private static final LocalDateTime NO_UPPER_BOUND = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Upper bound on showtimes per batch availability lookup
+    static final int MAX_BATCH_SHOWTIMES = 200;
+
+    private static final Duration SEAT_STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+    private static final String INSTANCE_TAG =
+            Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+
     private final ShowtimeRepository showtimeRepository;
     private final ReservedSeatRepository reservedSeatRepository;
+    private final SeatInventory seatInventory;
 
     public ShowtimeService(ShowtimeRepository showtimeRepository,
-                           ReservedSeatRepository reservedSeatRepository) {
+                           ReservedSeatRepository reservedSeatRepository,
+                           SeatInventory seatInventory) {
         this.showtimeRepository = showtimeRepository;
         this.reservedSeatRepository = reservedSeatRepository;
+        this.seatInventory = seatInventory;
     }
 
-    public List<ShowtimeDto> getShowtimesByMovie(UUID movieId) {
-        return showtimeRepository.findByMovieId(movieId).stream()
-                .filter(showtime -> showtime.getDateTime().isAfter(LocalDateTime.now()))
-                .map(this::toDto)
-                .toList();
+    /**
+     * Upcoming showtimes of a movie, ordered by start time. {@code from} is
+     * inclusive and raised to now if it lies in the past; {@code to} is
+     * exclusive. {@code to} and {@code limit} are optional.
+     *
+     * @throws InvalidShowtimeQueryException if {@code limit} is less than 1
+     */
+    public List<ShowtimeDto> getShowtimesByMovie(UUID movieId, LocalDateTime from,
+                                                 LocalDateTime to, Integer limit) {
+        return showtimeRepository.findDtosByMovieIdAndDateTimeBetween(
+                movieId, lowerBound(from), upperBound(to), toLimit(limit));
     }
 
-    public List<ShowtimeDto> getShowtimesByTheater(UUID theaterId) {
-        return showtimeRepository.findByScreenTheaterId(theaterId).stream()
-                .filter(showtime -> showtime.getDateTime().isAfter(LocalDateTime.now()))
-                .map(this::toDto)
-                .toList();
+    /**
+     * Upcoming showtimes at a theater, ordered by start time. Bounds and limit
+     * behave as in {@link #getShowtimesByMovie}.
+     */
+    public List<ShowtimeDto> getShowtimesByTheater(UUID theaterId, LocalDateTime from,
+                                                   LocalDateTime to, Integer limit) {
+        return showtimeRepository.findDtosByTheaterIdAndDateTimeBetween(
+                theaterId, lowerBound(from), upperBound(to), toLimit(limit));
+    }
+
+    /**
+     * All showtimes, past and upcoming, ordered by start time then id.
+     */
+    public CursorPage<ShowtimeDto> getShowtimePage(String cursor, Integer pageSize) {
+        int size = PageCursor.pageSize(pageSize);
+        List<ShowtimeDto> showtimes;
+        if (cursor == null) {
+            showtimes = showtimeRepository.findPage(PageCursor.fetchLimit(size));
+        } else {
+            PageCursor.DateTimePosition after = PageCursor.decodeDateTime(cursor);
+            showtimes = showtimeRepository.findPageAfter(after.dateTime(), after.id(), PageCursor.fetchLimit(size));
+        }
+
+        if (showtimes.size() <= size) {
+            return new CursorPage<>(showtimes, null);
+        }
+        List<ShowtimeDto> page = showtimes.subList(0, size);
+        ShowtimeDto last = page.getLast();
+        return new CursorPage<>(page, PageCursor.encode(last.dateTime(), last.id()));
+    }
+
+    /**
+     * Streams every showtime in page order, reading from a database cursor so the
+     * catalog is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamShowtimes(Consumer<? super ShowtimeDto> sink) {
+        try (Stream<ShowtimeDto> showtimes = showtimeRepository.streamAll()) {
+            showtimes.forEachOrdered(sink);
+        }
     }
 
     public AvailableSeatsResponse getAvailableSeats(UUID showtimeId) {
-        showtimeRepository.findById(showtimeId)
-                .orElseThrow(() -> new ShowtimeNotFoundException(showtimeId));
+        return toAvailableSeats(showtimeId, seatInventory.snapshot(showtimeId).taken());
+    }
 
-        Set<String> takenSeats = reservedSeatRepository.findByShowtimeId(showtimeId).stream()
-                .map(ReservedSeat::getSeatId)
-                .collect(Collectors.toSet());
+    /**
+     * Available seat counts for many showtimes at once, for listing badges. The
+     * showtimes are either the given {@code ids} (unknown ids are left out) or the
+     * upcoming showtimes of a movie and/or theater, optionally on one {@code date}.
+     * Without bitmaps, counts come from the showtimes' seats-sold counters in one
+     * query. With bitmaps, one more query reads the reserved seats, and each
+     * count is taken from its bitmap so the two always agree.
+     * <p>
+     * Both reflect committed bookings only. Unlike the per-showtime seats
+     * endpoint, which reads {@link SeatInventory}, seats on hold or claimed by
+     * a booking still being written show as available here.
+     */
+    @Transactional(readOnly = true)
+    public List<ShowtimeAvailabilityDto> getAvailability(List<UUID> ids, UUID movieId, UUID theaterId,
+                                                         LocalDate date, boolean bitmap) {
+        List<ShowtimeSeatCount> counts;
+        if (ids != null && !ids.isEmpty()) {
+            if (movieId != null || theaterId != null || date != null) {
+                throw new InvalidAvailabilityQueryException("ids cannot be combined with movieId, theaterId or date");
+            }
+            LinkedHashSet<UUID> distinctIds = new LinkedHashSet<>(ids);
+            if (distinctIds.size() > MAX_BATCH_SHOWTIMES) {
+                throw new InvalidAvailabilityQueryException(
+                        "At most " + MAX_BATCH_SHOWTIMES + " showtime ids per request");
+            }
+            counts = showtimeRepository.findSeatsSoldByIds(distinctIds);
+        } else {
+            LocalDateTime from = lowerBound(date == null ? null : date.atStartOfDay());
+            LocalDateTime to = upperBound(date == null ? null : date.plusDays(1).atStartOfDay());
+            Limit limit = Limit.of(MAX_BATCH_SHOWTIMES);
+            if (movieId != null && theaterId != null) {
+                counts = showtimeRepository.findSeatsSoldByMovieAndTheater(movieId, theaterId, from, to, limit);
+            } else if (movieId != null) {
+                counts = showtimeRepository.findSeatsSoldByMovie(movieId, from, to, limit);
+            } else if (theaterId != null) {
+                counts = showtimeRepository.findSeatsSoldByTheater(theaterId, from, to, limit);
+            } else {
+                throw new InvalidAvailabilityQueryException("Specify ids, movieId or theaterId");
+            }
+        }
 
-        List<String> availableSeats = SeatLayout.allSeatIds().stream()
-                .filter(seat -> !takenSeats.contains(seat))
+        Map<UUID, SeatMap> taken = bitmap ? takenSeatsOf(counts) : Map.of();
+        return counts.stream()
+                .map(count -> {
+                    if (!bitmap) {
+                        return new ShowtimeAvailabilityDto(count.showtimeId(), count.dateTime(),
+                                SeatLayout.TOTAL_SEATS, SeatLayout.TOTAL_SEATS - count.seatsSold(), null);
+                    }
+                    SeatMap available = taken.getOrDefault(count.showtimeId(), new SeatMap()).complement();
+                    return new ShowtimeAvailabilityDto(count.showtimeId(), count.dateTime(),
+                            SeatLayout.TOTAL_SEATS, available.size(),
+                            Base64.getEncoder().encodeToString(available.toBitmap()));
+                })
                 .toList();
+    }
 
-        return new AvailableSeatsResponse(
+    /**
+     * In-memory occupancy of the showtime with its version; never queries
+     * {@code reserved_seats} once the showtime is loaded.
+     */
+    public SeatInventory.Snapshot getSeatSnapshot(UUID showtimeId) {
+        return seatInventory.snapshot(showtimeId);
+    }
+
+    public AvailableSeatsResponse toAvailableSeats(UUID showtimeId, SeatInventory.Snapshot snapshot) {
+        return toAvailableSeats(showtimeId, snapshot.taken());
+    }
+
+    public AvailableSeatsBitmapResponse toAvailableSeatsBitmap(UUID showtimeId, SeatInventory.Snapshot snapshot) {
+        SeatMap available = snapshot.taken().complement();
+        return new AvailableSeatsBitmapResponse(
                 showtimeId,
                 SeatLayout.TOTAL_SEATS,
-                availableSeats.size(),
-                availableSeats
+                available.size(),
+                Base64.getEncoder().encodeToString(available.toBitmap())
+        );
+    }
+
+    public AvailableSeatsRangesResponse toAvailableSeatsRanges(UUID showtimeId, SeatInventory.Snapshot snapshot) {
+        SeatMap available = snapshot.taken().complement();
+        return new AvailableSeatsRangesResponse(
+                showtimeId,
+                SeatLayout.TOTAL_SEATS,
+                available.size(),
+                available.ranges()
         );
     }
 
-    private ShowtimeDto toDto(Showtime s) {
-        return new ShowtimeDto(
-                s.getId(),
-                s.getMovie().getId(),
-                s.getMovie().getTitle(),
-                s.getScreen().getId(),
-                s.getScreen().getLabel(),
-                s.getScreen().getTheater().getId(),
-                s.getScreen().getTheater().getName(),
-                s.getDateTime()
+    /**
+     * Raw availability bitmap; see {@link SeatMap#toBitmap()} for the bit order.
+     */
+    public byte[] toAvailableSeatsOctets(SeatInventory.Snapshot snapshot) {
+        return snapshot.taken().complement().toBitmap();
+    }
+
+    /**
+     * Strong ETag for one representation of a seat snapshot. Versions restart with
+     * the process, so the tag also carries an id of this process to keep tags from
+     * before a restart from matching; each representation gets its own tag because
+     * a strong validator promises byte-identical bodies.
+     */
+    public String seatsETag(SeatInventory.Snapshot snapshot, String representation) {
+        String version = INSTANCE_TAG + "-" + Long.toString(snapshot.version(), Character.MAX_RADIX);
+        return "\"" + (representation == null ? version : version + "-" + representation) + "\"";
+    }
+
+    /**
+     * Streams one availability snapshot, then a "taken" or "released" event for
+     * every change to the showtime's seats.
+     */
+    public SseEmitter streamAvailableSeats(UUID showtimeId) {
+        SeatInventory.Subscription subscription = seatInventory.subscribe(showtimeId);
+        SseEmitter emitter = new SseEmitter(SEAT_STREAM_TIMEOUT.toMillis());
+        subscription.registration().start(emitter, toAvailableSeats(showtimeId, subscription.taken()));
+        return emitter;
+    }
+
+    private Map<UUID, SeatMap> takenSeatsOf(List<ShowtimeSeatCount> counts) {
+        List<UUID> withBookings = counts.stream()
+                .filter(count -> count.seatsSold() > 0)
+                .map(ShowtimeSeatCount::showtimeId)
+                .toList();
+        Map<UUID, SeatMap> taken = new HashMap<>();
+        if (withBookings.isEmpty()) {
+            return taken;
+        }
+        for (ShowtimeSeat seat : reservedSeatRepository.findSeatsByShowtimeIds(withBookings)) {
+            int index = SeatLayout.indexOf(seat.seatId());
+            if (index >= 0) {
+                taken.computeIfAbsent(seat.showtimeId(), id -> new SeatMap()).add(index);
+            }
+        }
+        return taken;
+    }
+
+    private static LocalDateTime lowerBound(LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        return from == null || from.isBefore(now) ? now : from;
+    }
+
+    private static LocalDateTime upperBound(LocalDateTime to) {
+        return to == null ? NO_UPPER_BOUND : to;
+    }
+
+    private static Limit toLimit(Integer limit) {
+        if (limit == null) {
+            return Limit.unlimited();
+        }
+        if (limit < 1) {
+            throw new InvalidShowtimeQueryException("limit must be at least 1");
+        }
+        return Limit.of(limit);
+    }
+
+    static AvailableSeatsResponse toAvailableSeats(UUID showtimeId, SeatMap takenSeats) {
+        List<String> availableSeats = takenSeats.complement().seatIds();
+
+        return new AvailableSeatsResponse(
+                showtimeId,
+                SeatLayout.TOTAL_SEATS,
+                availableSeats.size(),
+                availableSeats
         );
     }
 }
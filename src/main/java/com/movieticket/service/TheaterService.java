@@ -1,23 +1,43 @@
 package com.movieticket.service;
 
+import com.movieticket.dto.CursorPage;
 import com.movieticket.dto.ScreenDto;
 import com.movieticket.dto.TheaterDto;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Theater;
 import com.movieticket.repository.TheaterRepository;
+import com.movieticket.repository.TheaterScreenRow;
+import com.movieticket.util.PageCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TheaterService {
 
     private final TheaterRepository theaterRepository;
+    private final SessionFactory sessionFactory;
 
-    public TheaterService(TheaterRepository theaterRepository) {
+    public TheaterService(TheaterRepository theaterRepository, EntityManagerFactory entityManagerFactory) {
         this.theaterRepository = theaterRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
     }
 
+    /**
+     * Served from the second-level cache once warm: the query cache holds the
+     * theater ids and the entity and collection regions hold the rows.
+     */
+    @Transactional(readOnly = true)
     public List<TheaterDto> getAllTheaters() {
-        return theaterRepository.findAll().stream()
+        return theaterRepository.findAllWithScreens().stream()
                 .map(t -> new TheaterDto(
                         t.getId(),
                         t.getName(),
@@ -27,4 +47,65 @@ public class TheaterService {
                 ))
                 .toList();
     }
+
+    /**
+     * Drops all cached theater data. Writes made through JPA keep the cache
+     * consistent on their own; this is for changes made directly in the database.
+     */
+    public void evictCatalogCache() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Theater.class);
+        cache.evictEntityData(Screen.class);
+        cache.evictCollectionData(Theater.class.getName() + ".screens");
+        cache.evictDefaultQueryRegion();
+    }
+
+    public CursorPage<TheaterDto> getTheaterPage(String cursor, Integer pageSize) {
+        int size = PageCursor.pageSize(pageSize);
+        List<UUID> ids = cursor == null
+                ? theaterRepository.findPageIds(PageCursor.fetchLimit(size))
+                : theaterRepository.findPageIdsAfter(PageCursor.decodeId(cursor), PageCursor.fetchLimit(size));
+
+        boolean hasMore = ids.size() > size;
+        List<UUID> pageIds = hasMore ? ids.subList(0, size) : ids;
+        List<TheaterDto> theaters = new ArrayList<>(pageIds.size());
+        if (!pageIds.isEmpty()) {
+            assemble(theaterRepository.findRowsByIdIn(pageIds).stream(), theaters::add);
+        }
+
+        String nextCursor = hasMore ? PageCursor.encode(theaters.getLast().id()) : null;
+        return new CursorPage<>(theaters, nextCursor);
+    }
+
+    /**
+     * Streams every theater with its screens in id order, reading from a database
+     * cursor so the catalog is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamTheaters(Consumer<? super TheaterDto> sink) {
+        try (Stream<TheaterScreenRow> rows = theaterRepository.streamAllRows()) {
+            assemble(rows, sink);
+        }
+    }
+
+    /**
+     * Folds rows ordered by theater id into one TheaterDto per theater.
+     */
+    private static void assemble(Stream<TheaterScreenRow> rows, Consumer<? super TheaterDto> sink) {
+        TheaterScreenRow[] current = new TheaterScreenRow[1];
+        List<ScreenDto> screens = new ArrayList<>();
+        rows.forEachOrdered(row -> {
+            if (current[0] != null && !current[0].theaterId().equals(row.theaterId())) {
+                sink.accept(new TheaterDto(current[0].theaterId(), current[0].theaterName(), List.copyOf(screens)));
+                screens.clear();
+            }
+            current[0] = row;
+            if (row.screenId() != null) {
+                screens.add(new ScreenDto(row.screenId(), row.screenLabel()));
+            }
+        });
+        if (current[0] != null) {
+            sink.accept(new TheaterDto(current[0].theaterId(), current[0].theaterName(), List.copyOf(screens)));
+        }
+    }
 }
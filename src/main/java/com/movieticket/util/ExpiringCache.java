@@ -0,0 +1,159 @@
+package com.movieticket.util;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent cache with a size bound and a time to live. Reads and writes are
+ * lock-free. Entries are evicted first in, first out, which for a fixed TTL is
+ * also expiry order, so both the bound and the TTL are enforced by looking at
+ * the oldest entries only.
+ * <p>
+ * Eviction is FIFO rather than least recently used because LRU turns every
+ * read into a write to the shared recency order, which needs a lock or a
+ * reordering buffer. The cache is meant for results that are read back soon
+ * after they are written, if at all, such as retries of the same request. For
+ * that use the oldest entry is also the least likely to be read again, so LRU
+ * would keep nearly the same entries.
+ * <p>
+ * Removing or replacing an entry leaves its old node in the insertion order.
+ * Once these dead nodes outnumber the live entries, the next writer sweeps
+ * them out, so the order stays within about twice the live size.
+ * <p>
+ * The bound is approximate under concurrent writes: each writer evicts down to
+ * the bound after its insert, so the size can briefly exceed it by the number
+ * of concurrent writers.
+ */
+public final class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long storedAtNanos) {
+    }
+
+    private record Node<K, V>(K key, Entry<V> entry) {
+    }
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Insertion order; nodes of replaced or removed entries are skipped at the head or swept
+    private final Queue<Node<K, V>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // Nodes in the order whose entry was removed or replaced since the last sweep; approximate
+    private final AtomicInteger dead = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public ExpiringCache(int capacity, Duration ttl) {
+        this(capacity, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-like time
+     */
+    public ExpiringCache(int capacity, Duration ttl, LongSupplier nanoClock) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the value, or {@code null} if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, nanoClock.getAsLong())) {
+            if (remove(key, entry)) {
+                dead.incrementAndGet();
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        long now = nanoClock.getAsLong();
+        Entry<V> entry = new Entry<>(value, now);
+        if (entries.put(key, entry) == null) {
+            size.incrementAndGet();
+        } else {
+            dead.incrementAndGet();
+        }
+        order.add(new Node<>(key, entry));
+        evict(now);
+        sweepIfMostlyDead();
+    }
+
+    /**
+     * @return the value removed, or {@code null} if there was none
+     */
+    public V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        size.decrementAndGet();
+        dead.incrementAndGet();
+        sweepIfMostlyDead();
+        return entry.value();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Nodes in the insertion order, live or dead.
+     */
+    int orderLength() {
+        return order.size();
+    }
+
+    private void evict(long now) {
+        Node<K, V> head;
+        while ((head = order.peek()) != null) {
+            boolean live = entries.get(head.key()) == head.entry();
+            if (live && size.get() <= capacity && !isExpired(head.entry(), now)) {
+                return;
+            }
+            if (order.remove(head) && live) {
+                remove(head.key(), head.entry());
+            }
+        }
+    }
+
+    private void sweepIfMostlyDead() {
+        if (dead.get() <= size.get() || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dead.set(0);
+            order.removeIf(node -> entries.get(node.key()) != node.entry());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private boolean remove(K key, Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return now - entry.storedAtNanos() >= ttlNanos;
+    }
+}
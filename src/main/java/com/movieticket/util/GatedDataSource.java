@@ -0,0 +1,129 @@
+package com.movieticket.util;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Admission gate in front of a connection pool. A connection is only requested
+ * from the pool after taking one of a fixed number of permits, and the permit
+ * is returned when the connection is closed. Sized to the pool, this turns any
+ * number of concurrent callers into a FIFO queue of parked threads, instead of
+ * all of them contending inside the pool, and makes the queue observable.
+ */
+public final class GatedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+    private final LongConsumer admitted;
+
+    /**
+     * @param permits  connections that may be checked out at once
+     * @param timeout  longest a caller waits for a permit
+     * @param admitted receives how long each admitted caller waited, in nanoseconds
+     */
+    public GatedDataSource(DataSource target, int permits, Duration timeout, LongConsumer admitted) {
+        super(target);
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.permits = new Semaphore(permits, true);
+        this.timeoutNanos = timeout.toNanos();
+        this.admitted = admitted;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Callers currently parked waiting for a permit; an estimate, as for
+     * {@link Semaphore#getQueueLength()}.
+     */
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection permit", e);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException("No database connection permit within "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms; " + waiting() + " callers waiting");
+        }
+        admitted.accept(System.nanoTime() - start);
+    }
+
+    /**
+     * Wraps the connection so the first {@code close()} returns the permit;
+     * further calls are passed through without releasing again.
+     */
+    private Connection gated(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                GatedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,58 @@
+package com.movieticket.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes values as newline-delimited JSON, one object per line, straight to the
+ * response stream. Output is buffered by the generator and flushed on close
+ * rather than after every row.
+ */
+public final class NdjsonWriter implements Consumer<Object>, AutoCloseable {
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Response body that hands an NDJSON row sink to {@code producer} and closes
+     * it once the producer returns.
+     */
+    public static StreamingResponseBody streaming(ObjectMapper objectMapper,
+                                                  Consumer<Consumer<Object>> producer) {
+        return out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                producer.accept(writer);
+            }
+        };
+    }
+
+    @Override
+    public void accept(Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
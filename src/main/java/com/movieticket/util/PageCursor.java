@@ -0,0 +1,107 @@
+package com.movieticket.util;
+
+import com.movieticket.exception.InvalidCursorException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation tokens for keyset pagination. A token records the sort
+ * key of the last row of a page, so the next page starts strictly after it
+ * regardless of rows inserted or deleted in between.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final byte ID_CURSOR = 1;
+    private static final byte DATE_TIME_CURSOR = 2;
+
+    private PageCursor() {
+    }
+
+    public record DateTimePosition(LocalDateTime dateTime, UUID id) {
+    }
+
+    /**
+     * Clamps the requested page size to [1, MAX_PAGE_SIZE].
+     */
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, requested));
+    }
+
+    /**
+     * Pages are fetched with one extra row to tell whether another page follows.
+     */
+    public static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    public static String encode(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(17);
+        buffer.put(ID_CURSOR);
+        putId(buffer, id);
+        return toToken(buffer);
+    }
+
+    public static String encode(LocalDateTime dateTime, UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(29);
+        buffer.put(DATE_TIME_CURSOR);
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(dateTime.getNano());
+        putId(buffer, id);
+        return toToken(buffer);
+    }
+
+    public static UUID decodeId(String cursor) {
+        ByteBuffer buffer = fromToken(cursor, ID_CURSOR, 17);
+        return getId(buffer);
+    }
+
+    public static DateTimePosition decodeDateTime(String cursor) {
+        ByteBuffer buffer = fromToken(cursor, DATE_TIME_CURSOR, 29);
+        try {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                    buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new DateTimePosition(dateTime, getId(buffer));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static void putId(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getId(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static String toToken(ByteBuffer buffer) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static ByteBuffer fromToken(String cursor, byte type, int length) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != length || bytes[0] != type) {
+                throw new InvalidCursorException(cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get();
+            return buffer;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
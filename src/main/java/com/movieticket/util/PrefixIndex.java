@@ -0,0 +1,137 @@
+package com.movieticket.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory word-prefix index over titles. Each title is split into lower-cased
+ * words held in a sorted map, so a prefix lookup is a range scan over the words
+ * starting with the query.
+ * <p>
+ * Matches the database type-ahead semantics: a title matches when it starts with
+ * the query or contains it right after a space. Titles starting with the query
+ * rank first, then shorter titles, then alphabetically.
+ * <p>
+ * Lookups are lock-free and may run concurrently with updates; updates are
+ * serialized with each other.
+ */
+public final class PrefixIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public record Match(UUID id, String title) {
+    }
+
+    private record Entry(UUID id, String title, String normalized, String[] words) {
+    }
+
+    private final NavigableMap<String, Set<UUID>> words = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public void put(UUID id, String title) {
+        String normalized = normalize(title);
+        String[] titleWords = normalized.isEmpty() ? new String[0] : normalized.split(" ");
+        Entry entry = new Entry(id, title, normalized, titleWords);
+        writeLock.lock();
+        try {
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (String word : entry.words) {
+                words.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        writeLock.lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns up to {@code limit} best-ranked titles matching {@code query}.
+     */
+    public List<Match> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int space = normalized.indexOf(' ');
+        String firstWord = space < 0 ? normalized : normalized.substring(0, space);
+        String wordStart = " " + normalized;
+
+        Comparator<Entry> ranking = Comparator
+                .comparing((Entry e) -> !e.normalized.startsWith(normalized))
+                .thenComparingInt(e -> e.title.length())
+                .thenComparing(Entry::title)
+                .thenComparing(Entry::id);
+        // Max-heap on rank, so the worst of the current top-K is evicted first
+        PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+        Set<UUID> seen = new HashSet<>();
+
+        for (Map.Entry<String, Set<UUID>> word : words.tailMap(firstWord, true).entrySet()) {
+            if (!word.getKey().startsWith(firstWord)) {
+                break;
+            }
+            for (UUID id : word.getValue()) {
+                Entry entry = entries.get(id);
+                if (entry == null || !seen.add(id)) {
+                    continue;
+                }
+                if (entry.normalized.startsWith(normalized) || entry.normalized.contains(wordStart)) {
+                    top.offer(entry);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Entry entry = top.poll();
+            matches.add(new Match(entry.id, entry.title));
+        }
+        return matches.reversed();
+    }
+
+    static String normalize(String text) {
+        return WHITESPACE.matcher(text.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private void unindex(Entry entry) {
+        for (String word : entry.words) {
+            words.computeIfPresent(word, (w, ids) -> {
+                ids.remove(entry.id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
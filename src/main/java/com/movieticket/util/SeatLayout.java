@@ -13,32 +13,73 @@ public final class SeatLayout {
     public static final int TOTAL_ROWS = LAST_ROW - FIRST_ROW + 1;
     public static final int TOTAL_SEATS = TOTAL_ROWS * SEATS_PER_ROW;
 
+    // Seat ids in index order, built once so index -> id lookups never allocate
+    private static final String[] SEAT_IDS = buildSeatIds();
+    private static final List<String> ALL_SEAT_IDS = List.of(SEAT_IDS);
+
     private SeatLayout() {
     }
 
     public static List<String> allSeatIds() {
-        List<String> seats = new ArrayList<>(TOTAL_SEATS);
-        for (char row = FIRST_ROW; row <= LAST_ROW; row++) {
-            for (int num = FIRST_SEAT; num <= LAST_SEAT; num++) {
-                seats.add(String.valueOf(row) + num);
-            }
-        }
-        return seats;
+        return ALL_SEAT_IDS;
     }
 
-    public static boolean isValidSeatId(String seatId) {
-        if (seatId == null || seatId.length() < 2 || seatId.length() > 3) {
-            return false;
+    /**
+     * Decodes a seat id into its packed index, {@code (row - FIRST_ROW) * SEATS_PER_ROW
+     * + (number - FIRST_SEAT)}, so 0 is A0 and TOTAL_SEATS - 1 is Z20. Reads the
+     * characters in place: no substrings, boxing or exceptions.
+     *
+     * @return the seat index, or -1 if the id is not a valid seat
+     */
+    public static int indexOf(CharSequence seatId) {
+        if (seatId == null) {
+            return -1;
+        }
+        int length = seatId.length();
+        if (length < 2 || length > 3) {
+            return -1;
         }
         char row = seatId.charAt(0);
         if (row < FIRST_ROW || row > LAST_ROW) {
-            return false;
+            return -1;
+        }
+        int num = 0;
+        for (int i = 1; i < length; i++) {
+            int digit = seatId.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            num = num * 10 + digit;
         }
-        try {
-            int num = Integer.parseInt(seatId.substring(1));
-            return num >= FIRST_SEAT && num <= LAST_SEAT;
-        } catch (NumberFormatException e) {
-            return false;
+        if (num < FIRST_SEAT || num > LAST_SEAT) {
+            return -1;
+        }
+        return (row - FIRST_ROW) * SEATS_PER_ROW + (num - FIRST_SEAT);
+    }
+
+    public static String seatIdAt(int index) {
+        return SEAT_IDS[index];
+    }
+
+    public static char rowOf(int index) {
+        return (char) (FIRST_ROW + index / SEATS_PER_ROW);
+    }
+
+    public static int numberOf(int index) {
+        return FIRST_SEAT + index % SEATS_PER_ROW;
+    }
+
+    public static boolean isValidSeatId(CharSequence seatId) {
+        return indexOf(seatId) >= 0;
+    }
+
+    private static String[] buildSeatIds() {
+        List<String> seats = new ArrayList<>(TOTAL_SEATS);
+        for (char row = FIRST_ROW; row <= LAST_ROW; row++) {
+            for (int num = FIRST_SEAT; num <= LAST_SEAT; num++) {
+                seats.add(String.valueOf(row) + num);
+            }
         }
+        return seats.toArray(String[]::new);
     }
 }
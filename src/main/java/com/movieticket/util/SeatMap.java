@@ -0,0 +1,206 @@
+package com.movieticket.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact set of seats for one showtime, stored as a bitset with one bit per
+ * seat in {@link SeatLayout} index order. Not thread-safe.
+ */
+public final class SeatMap {
+
+    private static final int WORDS = (SeatLayout.TOTAL_SEATS + Long.SIZE - 1) / Long.SIZE;
+    private static final long LAST_WORD_MASK = -1L >>> (WORDS * Long.SIZE - SeatLayout.TOTAL_SEATS);
+
+    private final long[] words;
+
+    public SeatMap() {
+        this.words = new long[WORDS];
+    }
+
+    private SeatMap(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Builds a map from seat ids. Ids that are not valid seats are ignored.
+     */
+    public static SeatMap of(Collection<String> seatIds) {
+        SeatMap map = new SeatMap();
+        for (String seatId : seatIds) {
+            int index = SeatLayout.indexOf(seatId);
+            if (index >= 0) {
+                map.add(index);
+            }
+        }
+        return map;
+    }
+
+    public boolean add(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        boolean absent = (words[word] & bit) == 0;
+        words[word] |= bit;
+        return absent;
+    }
+
+    public void remove(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    public boolean contains(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void addAll(SeatMap other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public void removeAll(SeatMap other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    public boolean intersects(SeatMap other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public SeatMap intersection(SeatMap other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new SeatMap(result);
+    }
+
+    /**
+     * Returns the seats of the layout that are not in this map.
+     */
+    public SeatMap complement() {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = ~words[i];
+        }
+        result[WORDS - 1] &= LAST_WORD_MASK;
+        return new SeatMap(result);
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public SeatMap copy() {
+        return new SeatMap(words.clone());
+    }
+
+    /**
+     * Returns the seat ids in this map in layout order. The strings are shared
+     * {@link SeatLayout} constants, so only the list itself is allocated.
+     */
+    public List<String> seatIds() {
+        List<String> seatIds = new ArrayList<>(size());
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                seatIds.add(SeatLayout.seatIdAt(i * Long.SIZE + bit));
+                word &= word - 1;
+            }
+        }
+        return seatIds;
+    }
+
+    /**
+     * Encodes the map as a bitmap in layout order: seat index {@code i} is bit
+     * {@code 7 - i % 8} of byte {@code i / 8}, so row A fills the first bytes
+     * from the most significant bit down. Unused trailing bits are zero.
+     */
+    public byte[] toBitmap() {
+        byte[] bitmap = new byte[(SeatLayout.TOTAL_SEATS + Byte.SIZE - 1) / Byte.SIZE];
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int index = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                bitmap[index >>> 3] |= (byte) (0x80 >>> (index & 7));
+                word &= word - 1;
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Describes the map as runs of consecutive seats within a row, in layout
+     * order: {@code "A0-A5"} for a run, {@code "A7"} for a single seat.
+     */
+    public List<String> ranges() {
+        List<String> ranges = new ArrayList<>();
+        int index = nextSetBit(0);
+        while (index >= 0) {
+            int rowEnd = index - SeatLayout.numberOf(index) + SeatLayout.FIRST_SEAT + SeatLayout.SEATS_PER_ROW;
+            int end = index;
+            while (end + 1 < rowEnd && contains(end + 1)) {
+                end++;
+            }
+            ranges.add(end == index
+                    ? SeatLayout.seatIdAt(index)
+                    : SeatLayout.seatIdAt(index) + "-" + SeatLayout.seatIdAt(end));
+            index = nextSetBit(end + 1);
+        }
+        return ranges;
+    }
+
+    private int nextSetBit(int from) {
+        int i = from >>> 6;
+        if (i >= WORDS) {
+            return -1;
+        }
+        long word = words[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return i * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == WORDS) {
+                return -1;
+            }
+            word = words[i];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof SeatMap other && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return seatIds().toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.movieticket.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of decoding the seat ids of a booking request in a single pass.
+ * The decoded seats are kept as a {@link SeatMap}, so later steps work on
+ * seat indexes instead of parsing the ids again.
+ *
+ * @param seats          valid seats of the request, without duplicates
+ * @param invalidSeatIds ids that are not seats of the layout, in request order
+ * @param hasDuplicates  whether any seat was requested more than once
+ */
+public record SeatSelection(SeatMap seats, List<String> invalidSeatIds, boolean hasDuplicates) {
+
+    public static SeatSelection parse(List<String> seatIds) {
+        SeatMap seats = new SeatMap();
+        List<String> invalid = List.of();
+        boolean duplicates = false;
+        for (String seatId : seatIds) {
+            int index = SeatLayout.indexOf(seatId);
+            if (index < 0) {
+                if (invalid.isEmpty()) {
+                    invalid = new ArrayList<>();
+                }
+                invalid.add(seatId);
+            } else if (!seats.add(index)) {
+                duplicates = true;
+            }
+        }
+        return new SeatSelection(seats, invalid, duplicates);
+    }
+
+    public boolean isValid() {
+        return invalidSeatIds.isEmpty() && !hasDuplicates;
+    }
+}
@@ -0,0 +1,39 @@
+package com.movieticket.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared by an unbounded key space. Equal keys always map
+ * to the same lock; distinct keys usually map to different ones, so work on
+ * different keys proceeds in parallel without allocating a lock per key.
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * @param stripes number of locks; rounded up to a power of two
+     */
+    public StripedLocks(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock lockFor(Object key) {
+        return locks[stripeOf(key)];
+    }
+
+    public int stripeOf(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public int stripes() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,144 @@
+package com.movieticket.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, for large numbers of
+ * timeouts that are mostly cancelled before they fire. Scheduling and
+ * cancelling are O(1); each tick only visits the timeouts in one bucket.
+ * Deadlines further out than one revolution wait out the extra rounds in
+ * their bucket.
+ * <p>
+ * Time is supplied by the caller in {@link System#nanoTime()} units and only
+ * moves forward through {@link #advance}, so expiry fires at most one tick late.
+ */
+public final class TimingWheel<T> {
+
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineNanos, long remainingRounds) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+            this.remainingRounds = remainingRounds;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public long deadlineNanos() {
+            return deadlineNanos;
+        }
+
+        /**
+         * Prevents the timeout from firing. It is dropped from its bucket the
+         * next time that bucket is visited.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Timeout<T>>[] buckets;
+    private final long startNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int pending;
+
+    /**
+     * @param tick       resolution of the wheel
+     * @param wheelSize  number of buckets, rounded up to a power of two
+     * @param startNanos the {@link System#nanoTime()} of tick 0
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tick, TimeUnit unit, int wheelSize, long startNanos) {
+        if (tick <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick and wheelSize must be positive");
+        }
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = unit.toNanos(tick);
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.startNanos = startNanos;
+    }
+
+    public Timeout<T> schedule(T item, long deadlineNanos) {
+        lock.lock();
+        try {
+            // A deadline inside the current tick fires on the next one
+            long ticks = Math.max(currentTick + 1, Math.ceilDiv(deadlineNanos - startNanos, tickNanos));
+            long rounds = (ticks - currentTick - 1) / buckets.length;
+            Timeout<T> timeout = new Timeout<>(item, deadlineNanos, rounds);
+            buckets[(int) (ticks & mask)].add(timeout);
+            pending++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel up to {@code nowNanos}, handing each expired, uncancelled
+     * item to {@code expired}. The callback runs outside the wheel's lock.
+     *
+     * @return the number of items expired
+     */
+    public int advance(long nowNanos, Consumer<? super T> expired) {
+        List<T> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (nowNanos - startNanos >= (currentTick + 1) * tickNanos) {
+                currentTick++;
+                List<Timeout<T>> bucket = buckets[(int) (currentTick & mask)];
+                int kept = 0;
+                for (Timeout<T> timeout : bucket) {
+                    if (timeout.cancelled) {
+                        pending--;
+                    } else if (timeout.remainingRounds == 0) {
+                        pending--;
+                        due.add(timeout.item);
+                    } else {
+                        timeout.remainingRounds--;
+                        bucket.set(kept++, timeout);
+                    }
+                }
+                bucket.subList(kept, bucket.size()).clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+        due.forEach(expired);
+        return due.size();
+    }
+
+    /**
+     * Timeouts scheduled and not yet fired or swept, including cancelled ones
+     * still waiting in their bucket.
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- One-off setup, run by a DBA once per database before the application first starts:
+--   psql -d movieticket -f extensions-postgresql.sql
+-- Needs a superuser, or on PostgreSQL 13+ a role with CREATE on the database
+-- (pg_trgm is a trusted extension). The application never runs this itself, so
+-- it can connect as a role without either.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
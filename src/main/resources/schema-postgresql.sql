@@ -0,0 +1,4 @@
+-- Runs after Hibernate has created the tables (spring.jpa.defer-datasource-initialization).
+-- Trigram index for movie title search: serves ILIKE '%x%' and 'x%' without a scan.
+-- Requires the pg_trgm extension, installed once by a DBA (db/extensions-postgresql.sql).
+CREATE INDEX IF NOT EXISTS idx_movies_title_trgm ON movies USING gin (title gin_trgm_ops);
@@ -0,0 +1,280 @@
+package com.movieticket.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.movieticket.dto.BookingRequest;
+import com.movieticket.dto.BookingTicketDto;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.BookingSequencer;
+import com.movieticket.service.BookingService;
+import com.movieticket.service.ReservationWriter;
+import com.movieticket.service.SeatInventory;
+import com.movieticket.util.SeatLayout;
+import com.movieticket.util.SeatMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "movieticket.bookings.async.ticket-ttl=PT1S")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AsyncBookingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingSequencer bookingSequencer;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @MockitoSpyBean
+    private ReservationWriter reservationWriter;
+
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        showtime = showtimeRepository.save(new Showtime(movie, screen, LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    void respondAsync_acceptsAndConfirmsBooking() throws Exception {
+        String ticketId = submit(showtime.getId(), "\"A1\", \"A2\"")
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(header().string("Location", startsWith("/api/bookings/tickets/")))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getHeader("Location")
+                .substring("/api/bookings/tickets/".length());
+
+        awaitTicket(ticketId)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.reservation.seatIds.length()").value(2))
+                .andExpect(jsonPath("$.reservation.confirmationId").isNotEmpty())
+                .andExpect(jsonPath("$.error").doesNotExist());
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void withoutPreference_booksSynchronously() throws Exception {
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Prefer", "return=minimal")
+                        .content(body(showtime.getId(), "\"A1\"")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.confirmationId").isNotEmpty());
+    }
+
+    @Test
+    void sameSeatsTwice_firstConfirmedSecondRejected() throws Exception {
+        String first = ticketId(submit(showtime.getId(), "\"B5\", \"B6\""));
+        String second = ticketId(submit(showtime.getId(), "\"B6\", \"B7\""));
+
+        awaitTicket(first).andExpect(jsonPath("$.status").value("CONFIRMED"));
+        awaitTicket(second)
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.error.status").value(409))
+                .andExpect(jsonPath("$.reservation").doesNotExist());
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void manyBookings_allConfirmedInBatches() throws Exception {
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i <= 20; i++) {
+            tickets.add(ticketId(submit(showtime.getId(), "\"C" + i + "\"")));
+        }
+        for (String ticket : tickets) {
+            awaitTicket(ticket).andExpect(jsonPath("$.status").value("CONFIRMED"));
+        }
+
+        assertThat(reservationRepository.count()).isEqualTo(21);
+        assertThat(showtimeRepository.findById(showtime.getId()).orElseThrow().getSeatsSold()).isEqualTo(21);
+    }
+
+    @Test
+    void bookingArrivingAsLaneDrains_neverGetsASecondWriterForTheShowtime() throws Exception {
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+        doAnswer(invocation -> {
+            mostAtOnce.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            try {
+                // Keeps the write open long enough for a second writer, if there were one, to start
+                Thread.sleep(1);
+                return invocation.callRealMethod();
+            } finally {
+                writing.decrementAndGet();
+            }
+        }).when(reservationWriter).write(anyList());
+
+        // Each round books as the previous booking confirms, when its writer is about to
+        // find the queue empty and drop the lane, then books again while that booking is written
+        List<UUID> tickets = new ArrayList<>();
+        int seat = 0;
+        for (int round = 0; round < 40; round++) {
+            UUID first = submit(SeatLayout.seatIdAt(seat++));
+            assertThat(awaitTicket(first)).isEqualTo(BookingTicketDto.Status.CONFIRMED);
+            tickets.add(submit(SeatLayout.seatIdAt(seat++)));
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            tickets.add(submit(SeatLayout.seatIdAt(seat++)));
+        }
+
+        for (UUID ticket : tickets) {
+            assertThat(awaitTicket(ticket)).isEqualTo(BookingTicketDto.Status.CONFIRMED);
+        }
+        assertThat(mostAtOnce.get()).as("writers running at once for one showtime").isEqualTo(1);
+        assertThat(reservationRepository.count()).isEqualTo(seat);
+    }
+
+    @Test
+    void failingBookingInBatch_rejectsOnlyThatBooking() throws Exception {
+        bookingService.createBooking(new BookingRequest(showtime.getId(), List.of("D0")));
+        // The inventory forgets the seat, so the next booking for it only fails on the unique constraint
+        seatInventory.release(showtime.getId(), SeatMap.of(List.of("D0")));
+
+        List<String> tickets = new ArrayList<>();
+        for (String seats : List.of("\"D1\"", "\"D0\", \"D5\"", "\"D2\"", "\"D3\"")) {
+            tickets.add(ticketId(submit(showtime.getId(), seats)));
+        }
+
+        awaitTicket(tickets.get(0)).andExpect(jsonPath("$.status").value("CONFIRMED"));
+        awaitTicket(tickets.get(1))
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.error.status").value(409));
+        awaitTicket(tickets.get(2)).andExpect(jsonPath("$.status").value("CONFIRMED"));
+        awaitTicket(tickets.get(3)).andExpect(jsonPath("$.status").value("CONFIRMED"));
+
+        assertThat(reservationRepository.count()).isEqualTo(4);
+        // D0 is taken again from the table; only D5 of the failed claim is released
+        assertThat(seatInventory.snapshot(showtime.getId()).taken().seatIds())
+                .containsExactly("D0", "D1", "D2", "D3");
+    }
+
+    @Test
+    void completedTickets_expireOnSchedule() throws Exception {
+        String ticket = ticketId(submit(showtime.getId(), "\"E1\""));
+        awaitTicket(ticket).andExpect(jsonPath("$.status").value("CONFIRMED"));
+
+        Thread.sleep(1100);
+        assertThat(bookingSequencer.expireTickets()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/bookings/tickets/{id}", ticket))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownShowtime_rejectedWithNotFound() throws Exception {
+        String ticket = ticketId(submit(UUID.randomUUID(), "\"A1\""));
+
+        awaitTicket(ticket)
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.error.status").value(404));
+    }
+
+    @Test
+    void invalidSeat_rejectedBeforeQueueing() throws Exception {
+        submit(showtime.getId(), "\"Z99\"")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownTicket_returns404() throws Exception {
+        mockMvc.perform(get("/api/bookings/tickets/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private UUID submit(String seatId) {
+        return bookingSequencer.submit(new BookingRequest(showtime.getId(), List.of(seatId))).ticketId();
+    }
+
+    private BookingTicketDto.Status awaitTicket(UUID ticketId) throws Exception {
+        return bookingSequencer.getTicket(ticketId, Duration.ofSeconds(10)).get(15, TimeUnit.SECONDS).status();
+    }
+
+    private ResultActions submit(UUID showtimeId, String seats) throws Exception {
+        return mockMvc.perform(post("/api/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Prefer", "respond-async, wait=5")
+                .content(body(showtimeId, seats)));
+    }
+
+    private String ticketId(ResultActions accepted) throws Exception {
+        return JsonPath.read(accepted.andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.ticketId");
+    }
+
+    private ResultActions awaitTicket(String ticketId) throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/bookings/tickets/{id}", ticketId).param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending));
+    }
+
+    private static String body(UUID showtimeId, String seats) {
+        return """
+                {"showtimeId": "%s", "seatIds": [%s]}
+                """.formatted(showtimeId, seats);
+    }
+}
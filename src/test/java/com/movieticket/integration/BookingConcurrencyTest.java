@@ -1,5 +1,6 @@
 package com.movieticket.integration;
 
+import com.jayway.jsonpath.JsonPath;
 import com.movieticket.entity.Movie;
 import com.movieticket.entity.Screen;
 import com.movieticket.entity.Showtime;
@@ -18,6 +19,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -129,6 +131,52 @@ class BookingConcurrencyTest {
                 .andExpect(jsonPath("$.availableCount").value(545));
     }
 
+    // Losers of a seat race are rejected by the in-memory admission check, not by the unique constraint
+    @Test
+    void concurrentBooking_sameSeat_losersRejectedBeforeInsert() throws Exception {
+        int threadCount = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threadCount);
+
+        List<String> conflictMessages = Collections.synchronizedList(new ArrayList<>());
+
+        String bookingJson = """
+                {"showtimeId": "%s", "seatIds": ["B7", "B8"]}
+                """.formatted(showtime.getId());
+
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    MvcResult result = mockMvc.perform(post("/api/bookings")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(bookingJson))
+                            .andReturn();
+
+                    if (result.getResponse().getStatus() == 409) {
+                        conflictMessages.add(JsonPath.read(result.getResponse().getContentAsString(), "$.message"));
+                    }
+                } catch (Exception e) {
+                    // Unexpected — test will fail on assertions below
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+
+        startLatch.countDown();
+        boolean completed = doneLatch.await(10, TimeUnit.SECONDS);
+
+        executor.shutdown();
+
+        assertThat(completed).isTrue();
+        assertThat(conflictMessages).hasSize(threadCount - 1);
+        assertThat(conflictMessages).allSatisfy(message ->
+                assertThat(message).startsWith("Seats already booked"));
+        assertThat(reservedSeatRepository.count()).isEqualTo(2);
+    }
+
     // Scenario 23: 10 threads book different seats on same showtime — all succeed
     @Test
     void concurrentBooking_differentSeats_allSucceed() throws Exception {
@@ -193,8 +241,7 @@ class BookingConcurrencyTest {
                 .andExpect(status().isCreated())
                 .andReturn();
 
-        String confirmationId = com.jayway.jsonpath.JsonPath
-                .read(preBookResult.getResponse().getContentAsString(), "$.confirmationId");
+        String confirmationId = JsonPath.read(preBookResult.getResponse().getContentAsString(), "$.confirmationId");
 
         // Verify 1 seat is booked
         mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", showtime.getId()))
@@ -1,11 +1,20 @@
 package com.movieticket.integration;
 
+import com.movieticket.controller.ShowtimeController;
 import com.movieticket.entity.Movie;
+import com.movieticket.entity.Reservation;
+import com.movieticket.entity.ReservedSeat;
 import com.movieticket.entity.Screen;
 import com.movieticket.entity.Showtime;
 import com.movieticket.entity.Theater;
 import com.movieticket.repository.*;
+import com.movieticket.service.SeatInventory;
+import com.movieticket.service.SeatsSoldReconciler;
 import com.movieticket.util.SeatLayout;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,17 +24,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,6 +67,18 @@ class BookingIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private SeatsSoldReconciler seatsSoldReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Movie matrix;
     private Movie inception;
     private Theater amcTheater;
@@ -63,6 +89,9 @@ class BookingIntegrationTest {
     private Showtime inceptionShowtime;
     private Showtime matrixAtRegal;
 
+    // Listings only return upcoming showtimes, so fixtures are scheduled relative to today
+    private final LocalDateTime showDay = LocalDate.now().plusDays(7).atStartOfDay();
+
     @BeforeEach
     void setUp() {
         // Create movies
@@ -79,11 +108,11 @@ class BookingIntegrationTest {
 
         // Create showtimes
         matrixShowtime = showtimeRepository.save(
-                new Showtime(matrix, amcScreen1, LocalDateTime.of(2026, 3, 15, 19, 0)));
+                new Showtime(matrix, amcScreen1, showDay.withHour(19)));
         inceptionShowtime = showtimeRepository.save(
-                new Showtime(inception, amcScreen1, LocalDateTime.of(2026, 3, 15, 21, 0)));
+                new Showtime(inception, amcScreen1, showDay.withHour(21)));
         matrixAtRegal = showtimeRepository.save(
-                new Showtime(matrix, regalScreen1, LocalDateTime.of(2026, 3, 15, 20, 0)));
+                new Showtime(matrix, regalScreen1, showDay.withHour(20)));
     }
 
     // ==========================================
@@ -155,6 +184,64 @@ class BookingIntegrationTest {
                             containsInAnyOrder("The Matrix", "Inception")));
         }
 
+        // Past showtimes are excluded and results are ordered by start time
+        @Test
+        void getShowtimesByMovie_excludesPastShowtimes_orderedByDateTime() throws Exception {
+            showtimeRepository.save(new Showtime(matrix, amcScreen1, LocalDateTime.now().minusDays(1)));
+
+            mockMvc.perform(get("/api/movies/{movieId}/showtimes", matrix.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].id").value(matrixShowtime.getId().toString()))
+                    .andExpect(jsonPath("$[1].id").value(matrixAtRegal.getId().toString()));
+        }
+
+        // Date window and limit narrow the listing
+        @Test
+        void getShowtimesByTheater_withWindowAndLimit_returnsSubset() throws Exception {
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId())
+                            .param("from", showDay.withHour(20).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].movieTitle").value("Inception"));
+
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId())
+                            .param("to", showDay.withHour(20).toString()))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].movieTitle").value("The Matrix"));
+
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId())
+                            .param("limit", "1"))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].movieTitle").value("The Matrix"));
+        }
+
+        // The lower bound is inclusive: a showtime starting exactly at from is listed
+        @Test
+        void showtimeStartingAtFrom_isIncluded() throws Exception {
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId())
+                            .param("from", showDay.withHour(21).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id").value(inceptionShowtime.getId().toString()));
+            mockMvc.perform(get("/api/movies/{movieId}/showtimes", matrix.getId())
+                            .param("from", showDay.withHour(20).toString()))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id").value(matrixAtRegal.getId().toString()));
+        }
+
+        // Showtime listings are read with a single joined query, regardless of result size
+        @Test
+        void getShowtimesByTheater_usesSingleQuery() throws Exception {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId()))
+                    .andExpect(status().isOk());
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+
         // Scenario 5: View available seats for a fresh showtime
         @Test
         void getAvailableSeats_freshShowtime_returnsAll546Seats() throws Exception {
@@ -191,6 +278,33 @@ class BookingIntegrationTest {
                     .andExpect(jsonPath("$.availableSeats", not(hasItem("A5"))));
         }
 
+        // Keys and confirmation ids are time-ordered UUIDv7, so inserts append to their indexes
+        @Test
+        void bookSeats_idsAreTimeOrdered() throws Exception {
+            String first = JsonPath.read(book("A5"), "$.confirmationId");
+            String second = JsonPath.read(book("A6"), "$.confirmationId");
+
+            // Hex strings sort like the 16 bytes the database index compares
+            assertThat(first).isLessThan(second);
+            assertThat(UUID.fromString(first).version()).isEqualTo(7);
+            assertThat(matrixShowtime.getId().version()).isEqualTo(7);
+            assertThat(reservationRepository.findAll())
+                    .allSatisfy(reservation -> assertThat(reservation.getId().version()).isEqualTo(7));
+            assertThat(jdbcTemplate.queryForList("select id from reserved_seats", UUID.class))
+                    .hasSize(2)
+                    .allSatisfy(id -> assertThat(id.version()).isEqualTo(7));
+        }
+
+        private String book(String seatId) throws Exception {
+            return mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["%s"]}
+                                    """.formatted(matrixShowtime.getId(), seatId)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+        }
+
         // Scenario 7: Book multiple seats in one reservation
         @Test
         void bookMultipleSeats_allSeatInResponse_availableDrops() throws Exception {
@@ -211,6 +325,262 @@ class BookingIntegrationTest {
                     .andExpect(jsonPath("$.availableCount").value(543));
         }
 
+        // A group booking writes the reservation and its seats in a fixed number of statements
+        @Test
+        void bookGroupOfSeats_insertsSeatsInOneBatch() throws Exception {
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(status().isOk());
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            String bookingJson = """
+                    {"showtimeId": "%s", "seatIds": ["G1", "G2", "G3", "G4", "G5", "G6", "G7", "G8"]}
+                    """.formatted(matrixShowtime.getId());
+
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bookingJson))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.seatIds", hasSize(8)));
+
+            // showtime lookup, reservation insert, one batched insert for all seats, seats-sold increment
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        }
+
+        // An unchanged seat map is answered with 304 from the in-memory version alone
+        @Test
+        void getAvailableSeats_matchingETag_returns304WithoutQueries() throws Exception {
+            MvcResult first = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", startsWith("\"")))
+                    .andReturn();
+            assertThat(first.getResponse().getHeaders("ETag")).hasSize(1);
+            String eTag = first.getResponse().getHeader("ETag");
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            MvcResult result = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", eTag))
+                    .andReturn();
+
+            assertThat(result.getResponse().getContentAsString()).isEmpty();
+            assertThat(result.getResponse().getHeaders("ETag")).hasSize(1);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        }
+
+        // Booking and cancelling each change the ETag
+        @Test
+        void getAvailableSeats_bookingAndCancellation_changeETag() throws Exception {
+            String before = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            MvcResult booking = mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["H1"]}
+                                    """.formatted(matrixShowtime.getId())))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            String confirmationId = JsonPath.read(
+                    booking.getResponse().getContentAsString(), "$.confirmationId");
+
+            String afterBooking = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .header("If-None-Match", before))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.availableCount").value(545))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertThat(afterBooking).isNotEqualTo(before);
+
+            mockMvc.perform(delete("/api/bookings/{confirmationId}", confirmationId))
+                    .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .header("If-None-Match", afterBooking))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(before)))
+                    .andExpect(jsonPath("$.availableCount").value(546));
+        }
+
+        // JSON stays the default for clients that accept anything
+        @ParameterizedTest
+        @ValueSource(strings = {"*/*", "application/json", "application/json, text/plain, */*"})
+        void getAvailableSeats_genericAccept_returnsJsonSeatList(String accept) throws Exception {
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .header("Accept", accept))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.availableSeats", hasSize(546)));
+        }
+
+        // Compact forms are available through content negotiation
+        @Test
+        void getAvailableSeats_compactRepresentations() throws Exception {
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["A1", "A2"]}
+                                    """.formatted(matrixShowtime.getId())))
+                    .andExpect(status().isCreated());
+
+            byte[] octets = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .accept(MediaType.APPLICATION_OCTET_STREAM))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertThat(octets).hasSize(69);
+            assertThat(octets[0]).isEqualTo((byte) 0x9F);
+
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .accept(ShowtimeController.SEATS_BITMAP_JSON_VALUE))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.availableCount").value(544))
+                    .andExpect(jsonPath("$.bitmap").value(Base64.getEncoder().encodeToString(octets)));
+
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .accept(ShowtimeController.SEATS_RANGES_JSON_VALUE))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.availableCount").value(544))
+                    .andExpect(jsonPath("$.availableRanges", hasSize(27)))
+                    .andExpect(jsonPath("$.availableRanges[0]").value("A0"))
+                    .andExpect(jsonPath("$.availableRanges[1]").value("A3-A20"));
+        }
+
+        // Each representation has its own validator
+        @Test
+        void getAvailableSeats_representationsHaveDistinctETags() throws Exception {
+            String json = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(header().string("Vary", containsString("Accept")))
+                    .andReturn().getResponse().getHeader("ETag");
+            String octets = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .accept(MediaType.APPLICATION_OCTET_STREAM))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            assertThat(octets).isNotEqualTo(json);
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .accept(MediaType.APPLICATION_OCTET_STREAM)
+                            .header("If-None-Match", json))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId())
+                            .accept(MediaType.APPLICATION_OCTET_STREAM)
+                            .header("If-None-Match", octets))
+                    .andExpect(status().isNotModified());
+        }
+
+        // Listing badges for many showtimes come from one query, not one lookup per showtime
+        @Test
+        void batchAvailability_byIds_usesSingleQuery() throws Exception {
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["A1", "A2"]}
+                                    """.formatted(matrixShowtime.getId())))
+                    .andExpect(status().isCreated());
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            mockMvc.perform(get("/api/showtimes/availability")
+                            .param("ids", inceptionShowtime.getId().toString(),
+                                    matrixShowtime.getId().toString(), UUID.randomUUID().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].showtimeId").value(matrixShowtime.getId().toString()))
+                    .andExpect(jsonPath("$[0].totalSeats").value(SeatLayout.TOTAL_SEATS))
+                    .andExpect(jsonPath("$[0].availableCount").value(544))
+                    .andExpect(jsonPath("$[0].bitmap").doesNotExist())
+                    .andExpect(jsonPath("$[1].showtimeId").value(inceptionShowtime.getId().toString()))
+                    .andExpect(jsonPath("$[1].availableCount").value(546));
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+
+        @Test
+        void batchAvailability_byMovieAndDate_withBitmaps() throws Exception {
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["A1"]}
+                                    """.formatted(matrixAtRegal.getId())))
+                    .andExpect(status().isCreated());
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            MvcResult result = mockMvc.perform(get("/api/showtimes/availability")
+                            .param("movieId", matrix.getId().toString())
+                            .param("date", showDay.toLocalDate().toString())
+                            .param("bitmap", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].showtimeId").value(matrixShowtime.getId().toString()))
+                    .andExpect(jsonPath("$[0].availableCount").value(546))
+                    .andExpect(jsonPath("$[1].showtimeId").value(matrixAtRegal.getId().toString()))
+                    .andExpect(jsonPath("$[1].availableCount").value(545))
+                    .andReturn();
+
+            // one read of the counters, one of the seats behind the non-zero counts
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            String body = result.getResponse().getContentAsString();
+            byte[] free = Base64.getDecoder().decode(JsonPath.<String>read(body, "$[0].bitmap"));
+            byte[] partlyBooked = Base64.getDecoder().decode(JsonPath.<String>read(body, "$[1].bitmap"));
+            assertThat(free[0]).isEqualTo((byte) 0xFF);
+            assertThat(partlyBooked[0]).isEqualTo((byte) 0xBF);
+        }
+
+        @Test
+        void batchAvailability_countsAHeldSeatAsAvailable_unlikeSeatsEndpoint() throws Exception {
+            mockMvc.perform(post("/api/holds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["A1"]}
+                                    """.formatted(matrixShowtime.getId())))
+                    .andExpect(status().isCreated());
+
+            MvcResult result = mockMvc.perform(get("/api/showtimes/availability")
+                            .param("ids", matrixShowtime.getId().toString())
+                            .param("bitmap", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].availableCount").value(546))
+                    .andReturn();
+            byte[] bitmap = Base64.getDecoder().decode(
+                    JsonPath.<String>read(result.getResponse().getContentAsString(), "$[0].bitmap"));
+            assertThat(bitmap[0]).isEqualTo((byte) 0xFF);
+
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(jsonPath("$.availableCount").value(545));
+        }
+
+        @Test
+        void batchAvailability_byTheater_otherDaysExcluded() throws Exception {
+            showtimeRepository.save(new Showtime(inception, amcScreen1, showDay.plusDays(1).withHour(19)));
+
+            mockMvc.perform(get("/api/showtimes/availability")
+                            .param("theaterId", amcTheater.getId().toString())
+                            .param("date", showDay.toLocalDate().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].showtimeId", contains(
+                            matrixShowtime.getId().toString(), inceptionShowtime.getId().toString())));
+            mockMvc.perform(get("/api/showtimes/availability")
+                            .param("theaterId", amcTheater.getId().toString()))
+                    .andExpect(jsonPath("$", hasSize(3)));
+        }
+
+        @Test
+        void batchAvailability_byDate_includesMidnightShowtime() throws Exception {
+            Showtime midnight = showtimeRepository.save(new Showtime(inception, amcScreen1, showDay));
+
+            mockMvc.perform(get("/api/showtimes/availability")
+                            .param("theaterId", amcTheater.getId().toString())
+                            .param("date", showDay.toLocalDate().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].showtimeId", contains(midnight.getId().toString(),
+                            matrixShowtime.getId().toString(), inceptionShowtime.getId().toString())));
+        }
+
         // Scenario 8: Book seats at two different showtimes independently
         @Test
         void bookSeatsAtDifferentShowtimes_bothSucceed_seatsIndependent() throws Exception {
@@ -272,6 +642,120 @@ class BookingIntegrationTest {
                     .andExpect(jsonPath("$.availableCount").value(546))
                     .andExpect(jsonPath("$.availableSeats", hasItem("B10")));
         }
+
+        // Cancellation deletes with bulk statements, however many seats the reservation holds
+        @Test
+        void cancelLargeReservation_usesFixedNumberOfStatements() throws Exception {
+            String seatIds = String.join("\", \"", java.util.stream.IntStream.rangeClosed(0, 20)
+                    .mapToObj(n -> "H" + n).toList());
+            MvcResult bookResult = mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["%s"]}
+                                    """.formatted(matrixShowtime.getId(), seatIds)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.seatIds", hasSize(21)))
+                    .andReturn();
+            String confirmationId = JsonPath.read(bookResult.getResponse().getContentAsString(), "$.confirmationId");
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            mockMvc.perform(delete("/api/bookings/{confirmationId}", confirmationId))
+                    .andExpect(status().isNoContent());
+
+            // lock, read freed seats, delete seats, delete reservation, seats-sold decrement
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+            assertThat(reservationRepository.count()).isZero();
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(jsonPath("$.availableCount").value(546));
+            mockMvc.perform(get("/api/movies/{movieId}/showtimes", matrix.getId()))
+                    .andExpect(jsonPath("$[0].availableCount").value(546));
+        }
+
+        // Listings carry remaining capacity from the seats-sold counter, kept by booking and cancel
+        @Test
+        void showtimeListing_availableCountFollowsBookingAndCancellation() throws Exception {
+            MvcResult bookResult = mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["C1", "C2", "C3"]}
+                                    """.formatted(matrixShowtime.getId())))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            String confirmationId = JsonPath.read(bookResult.getResponse().getContentAsString(), "$.confirmationId");
+
+            mockMvc.perform(get("/api/movies/{movieId}/showtimes", matrix.getId()))
+                    .andExpect(jsonPath("$[0].id").value(matrixShowtime.getId().toString()))
+                    .andExpect(jsonPath("$[0].availableCount").value(543))
+                    .andExpect(jsonPath("$[1].availableCount").value(546));
+
+            mockMvc.perform(delete("/api/bookings/{confirmationId}", confirmationId))
+                    .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/movies/{movieId}/showtimes", matrix.getId()))
+                    .andExpect(jsonPath("$[0].availableCount").value(546));
+        }
+
+        @Test
+        void seatsSoldReconciler_repairsDriftedCounter() throws Exception {
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["D1", "D2"]}
+                                    """.formatted(matrixShowtime.getId())))
+                    .andExpect(status().isCreated());
+            jdbcTemplate.update("update showtimes set seats_sold = 40 where id = ?", matrixShowtime.getId());
+            jdbcTemplate.update("update showtimes set seats_sold = 7 where id = ?", inceptionShowtime.getId());
+            // Showtimes that have started are no longer checked
+            Showtime past = showtimeRepository.save(new Showtime(matrix, amcScreen1, LocalDateTime.now().minusDays(1)));
+            jdbcTemplate.update("update showtimes set seats_sold = 3 where id = ?", past.getId());
+
+            assertThat(seatsSoldReconciler.reconcile()).isEqualTo(2);
+            assertThat(seatsSoldReconciler.reconcile()).isZero();
+
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId()))
+                    .andExpect(jsonPath("$[0].availableCount").value(544))
+                    .andExpect(jsonPath("$[1].availableCount").value(546));
+        }
+
+        // Seat inventory is rebuilt from reserved_seats when a showtime is not cached
+        @Test
+        void getAvailableSeats_afterEviction_rebuildsFromDatabase() throws Exception {
+            Reservation reservation = new Reservation(matrixShowtime);
+            reservation.getReservedSeats().add(new ReservedSeat(reservation, matrixShowtime, "F7"));
+            reservationRepository.save(reservation);
+
+            seatInventory.evict(matrixShowtime.getId());
+
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(jsonPath("$.availableCount").value(545))
+                    .andExpect(jsonPath("$.availableSeats", not(hasItem("F7"))));
+
+            String bookingJson = """
+                    {"showtimeId": "%s", "seatIds": ["F7"]}
+                    """.formatted(matrixShowtime.getId());
+
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bookingJson))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", containsString("F7")));
+        }
+
+        // Started showtimes are dropped from the inventory; upcoming ones stay
+        @Test
+        void evictStarted_dropsOnlyShowtimesThatHaveStarted() throws Exception {
+            Showtime started = showtimeRepository.save(new Showtime(matrix, amcScreen1, LocalDateTime.now().minusHours(1)));
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", started.getId()))
+                    .andExpect(jsonPath("$.availableCount").value(546));
+            mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", matrixShowtime.getId()))
+                    .andExpect(jsonPath("$.availableCount").value(546));
+
+            assertThat(seatInventory.evictStarted()).isEqualTo(1);
+            assertThat(seatInventory.evictStarted()).isZero();
+        }
     }
 
     // ==========================================
@@ -381,6 +865,27 @@ class BookingIntegrationTest {
                     .andExpect(status().isNotFound());
         }
 
+        @Test
+        void showtimeListingWithLimitBelowOne_returns400() throws Exception {
+            mockMvc.perform(get("/api/theaters/{theaterId}/showtimes", amcTheater.getId())
+                            .param("limit", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("limit must be at least 1"));
+            mockMvc.perform(get("/api/movies/{movieId}/showtimes", matrix.getId())
+                            .param("limit", "-1"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void batchAvailabilityWithoutFilter_returns400() throws Exception {
+            mockMvc.perform(get("/api/showtimes/availability"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/showtimes/availability")
+                            .param("ids", matrixShowtime.getId().toString())
+                            .param("movieId", matrix.getId().toString()))
+                    .andExpect(status().isBadRequest());
+        }
+
         // Scenario 16: Double cancel same reservation — second returns 404
         @Test
         void doubleCancelSameReservation_secondReturns404() throws Exception {
@@ -0,0 +1,239 @@
+package com.movieticket.integration;
+
+import com.movieticket.dto.BookingRequest;
+import com.movieticket.dto.BulkCancellationRequest;
+import com.movieticket.dto.CancellationJobDto;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.exception.CancellationJobNotFoundException;
+import com.movieticket.exception.InvalidBulkCancellationException;
+import com.movieticket.exception.ShowtimeClosedException;
+import com.movieticket.exception.ShowtimeNotFoundException;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.BookingService;
+import com.movieticket.service.BulkCancellationService;
+import com.movieticket.service.ReservationWriter;
+import com.movieticket.service.SeatInventory;
+import com.movieticket.util.SeatLayout;
+import com.movieticket.util.SeatMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "movieticket.cancellations.chunk-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BulkCancellationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BulkCancellationService bulkCancellationService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private ReservationWriter reservationWriter;
+
+    private final LocalDateTime showDay = LocalDate.now().plusDays(7).atStartOfDay();
+
+    private Movie movie;
+    private Screen screen;
+    private Showtime evening;
+    private Showtime lateNight;
+    private Showtime nextDay;
+
+    @BeforeEach
+    void setUp() {
+        movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        evening = showtimeRepository.save(new Showtime(movie, screen, showDay.withHour(19)));
+        lateNight = showtimeRepository.save(new Showtime(movie, screen, showDay.withHour(22)));
+        nextDay = showtimeRepository.save(new Showtime(movie, screen, showDay.plusDays(1).withHour(19)));
+
+        book(evening, 5);
+        book(lateNight, 3);
+        book(nextDay, 2);
+    }
+
+    @Test
+    void cancelByShowtimeIds_emptiesShowtimeInChunks() throws Exception {
+        CancellationJobDto job = awaitFinished(bulkCancellationService.submit(
+                new BulkCancellationRequest(List.of(evening.getId()), null, null, null)));
+
+        assertThat(job.status()).isEqualTo(CancellationJobDto.Status.COMPLETED);
+        assertThat(job.showtimesTotal()).isEqualTo(1);
+        assertThat(job.showtimesDone()).isEqualTo(1);
+        assertThat(job.reservationsCancelled()).isEqualTo(5);
+        assertThat(job.seatsFreed()).isEqualTo(10);
+        assertThat(job.error()).isNull();
+
+        assertThat(reservationRepository.count()).isEqualTo(5);
+        assertThat(seatInventory.snapshot(evening.getId()).taken().isEmpty()).isTrue();
+        assertThat(seatInventory.snapshot(lateNight.getId()).taken().size()).isEqualTo(6);
+        assertThat(showtimeRepository.findById(evening.getId()).orElseThrow().getSeatsSold()).isZero();
+
+        // The cancelled showtime is off sale; the others are not
+        assertThatThrownBy(() -> bookingService.createBooking(new BookingRequest(evening.getId(), List.of("A0", "A1"))))
+                .isInstanceOf(ShowtimeClosedException.class);
+        bookingService.createBooking(new BookingRequest(lateNight.getId(), List.of("B0", "B1")));
+    }
+
+    @Test
+    void closeSales_refusesBookingClaimedBeforeButWrittenAfter() throws Exception {
+        SeatMap seats = SeatMap.of(List.of("C0"));
+        assertThat(seatInventory.claim(evening.getId(), seats)).isEmpty();
+
+        bookingService.closeSales(evening.getId());
+
+        assertThatThrownBy(() -> reservationWriter.write(List.of(new ReservationWriter.Booking(evening.getId(), seats))))
+                .isInstanceOf(ShowtimeClosedException.class);
+        assertThat(reservationRepository.count()).isEqualTo(10);
+        assertThat(showtimeRepository.findById(evening.getId()).orElseThrow().getSeatsSold()).isEqualTo(10);
+        mockMvc.perform(post("/api/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"showtimeId": "%s", "seatIds": ["D0"]}
+                                """.formatted(evening.getId())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void cancelByDateRange_coversOnlyShowtimesOfTheScreenInRange() throws Exception {
+        Showtime otherScreen = showtimeRepository.save(new Showtime(movie,
+                screenRepository.save(new Screen(screen.getTheater(), "Screen 2")), showDay.withHour(19)));
+        bookingService.createBooking(new BookingRequest(otherScreen.getId(), List.of("A0")));
+
+        CancellationJobDto job = awaitFinished(bulkCancellationService.submit(
+                new BulkCancellationRequest(null, screen.getId(), showDay, showDay.plusDays(1))));
+
+        assertThat(job.status()).isEqualTo(CancellationJobDto.Status.COMPLETED);
+        assertThat(job.showtimesTotal()).isEqualTo(2);
+        assertThat(job.reservationsCancelled()).isEqualTo(8);
+        assertThat(job.seatsFreed()).isEqualTo(16);
+
+        assertThat(reservationRepository.count()).isEqualTo(3);
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", lateNight.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS));
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", nextDay.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS - 4));
+
+        // Same day, another screen: still booked and still on sale
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", otherScreen.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS - 1));
+        bookingService.createBooking(new BookingRequest(otherScreen.getId(), List.of("A1")));
+    }
+
+    @Test
+    void submit_rejectsUnknownShowtimeBeforeCancellingAnything() {
+        assertThatThrownBy(() -> bulkCancellationService.submit(
+                new BulkCancellationRequest(List.of(evening.getId(), UUID.randomUUID()), null, null, null)))
+                .isInstanceOf(ShowtimeNotFoundException.class);
+
+        assertThat(reservationRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    void submit_requiresExactlyOneSelection() {
+        assertThatThrownBy(() -> bulkCancellationService.submit(new BulkCancellationRequest(null, null, null, null)))
+                .isInstanceOf(InvalidBulkCancellationException.class);
+        assertThatThrownBy(() -> bulkCancellationService.submit(
+                new BulkCancellationRequest(List.of(evening.getId()), screen.getId(), showDay, showDay.plusDays(1))))
+                .isInstanceOf(InvalidBulkCancellationException.class);
+        assertThatThrownBy(() -> bulkCancellationService.submit(
+                new BulkCancellationRequest(null, screen.getId(), showDay.plusDays(1), showDay)))
+                .isInstanceOf(InvalidBulkCancellationException.class);
+    }
+
+    @Test
+    void submit_rangeRequiresAKnownScreen() {
+        assertThatThrownBy(() -> bulkCancellationService.submit(
+                new BulkCancellationRequest(null, null, showDay, showDay.plusDays(1))))
+                .isInstanceOf(InvalidBulkCancellationException.class)
+                .hasMessage("A from/to range requires a screenId");
+        assertThatThrownBy(() -> bulkCancellationService.submit(
+                new BulkCancellationRequest(null, UUID.randomUUID(), showDay, showDay.plusDays(1))))
+                .isInstanceOf(InvalidBulkCancellationException.class);
+
+        assertThat(reservationRepository.count()).isEqualTo(10);
+    }
+
+    @Test
+    void unknownJob_notFound() {
+        assertThatThrownBy(() -> bulkCancellationService.getJob(UUID.randomUUID()))
+                .isInstanceOf(CancellationJobNotFoundException.class);
+    }
+
+    @Test
+    void bulkCancellation_requiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/bookings/cancellations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"showtimeIds": ["%s"]}
+                                """.formatted(evening.getId())))
+                .andExpect(status().isForbidden());
+
+        assertThat(reservationRepository.count()).isEqualTo(10);
+    }
+
+    private void book(Showtime showtime, int reservations) {
+        for (int i = 0; i < reservations; i++) {
+            bookingService.createBooking(new BookingRequest(showtime.getId(), List.of("A" + 2 * i, "A" + (2 * i + 1))));
+        }
+    }
+
+    private CancellationJobDto awaitFinished(CancellationJobDto submitted) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        CancellationJobDto job = submitted;
+        while (job.finishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = bulkCancellationService.getJob(submitted.jobId());
+        }
+        return job;
+    }
+}
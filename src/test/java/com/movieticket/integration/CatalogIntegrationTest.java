@@ -0,0 +1,342 @@
+package com.movieticket.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.dto.CreateMovieRequest;
+import com.movieticket.dto.MovieDto;
+import com.movieticket.dto.UpdateMovieRequest;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.MovieService;
+import com.movieticket.service.TheaterService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class CatalogIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private TheaterService theaterService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime showDay = LocalDate.now().plusDays(7).atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Movie movie = movieRepository.save(new Movie("Movie " + i));
+            Theater theater = theaterRepository.save(new Theater("Theater " + i));
+            Screen screen1 = screenRepository.save(new Screen(theater, "Screen 1"));
+            screenRepository.save(new Screen(theater, "Screen 2"));
+            // Two showtimes share each start time so the id tie-breaker is exercised
+            showtimeRepository.save(new Showtime(movie, screen1, showDay.withHour(10 + i)));
+            showtimeRepository.save(new Showtime(movie, screen1, showDay.withHour(10 + i)));
+        }
+    }
+
+    @Test
+    void moviePages_walkAllMoviesOnce() throws Exception {
+        List<String> ids = walk("/api/movies", 2);
+
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates();
+        assertThat(ids).isSorted();
+    }
+
+    @Test
+    void theaterPages_includeScreensAndWalkAllTheatersOnce() throws Exception {
+        mockMvc.perform(get("/api/theaters").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].screens", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").isString());
+
+        List<String> ids = walk("/api/theaters", 2);
+
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void showtimePages_orderedByStartTimeAcrossPages() throws Exception {
+        List<String> ids = walk("/api/showtimes", 3);
+
+        assertThat(ids).hasSize(10).doesNotHaveDuplicates();
+        List<LocalDateTime> starts = ids.stream()
+                .map(id -> showtimeRepository.findById(UUID.fromString(id)).orElseThrow().getDateTime())
+                .toList();
+        assertThat(starts).isSorted();
+    }
+
+    @Test
+    void lastPage_hasNoCursor() throws Exception {
+        mockMvc.perform(get("/api/movies").param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(5)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void listingWithoutPageSize_keepsReturningPlainArray() throws Exception {
+        mockMvc.perform(get("/api/movies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+    }
+
+    @Test
+    void malformedCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/movies").param("pageSize", "2").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void cursorFromAnotherListing_returns400() throws Exception {
+        String showtimeCursor = page("/api/showtimes", 1, null).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/movies").param("pageSize", "2").param("cursor", showtimeCursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ndjsonStream_writesOneMoviePerLine() throws Exception {
+        List<JsonNode> rows = stream("/api/movies");
+
+        assertThat(rows).hasSize(5);
+        assertThat(rows).allSatisfy(row -> assertThat(row.has("title")).isTrue());
+    }
+
+    @Test
+    void ndjsonStream_writesTheatersWithScreens() throws Exception {
+        List<JsonNode> rows = stream("/api/theaters");
+
+        assertThat(rows).hasSize(5);
+        assertThat(rows).allSatisfy(row -> assertThat(row.get("screens").size()).isEqualTo(2));
+    }
+
+    @Test
+    void ndjsonStream_writesShowtimesInStartOrder() throws Exception {
+        List<JsonNode> rows = stream("/api/showtimes");
+
+        assertThat(rows).hasSize(10);
+        assertThat(rows.stream().map(row -> row.get("dateTime").asText()).toList()).isSorted();
+    }
+
+    @Test
+    void theaterCatalog_secondReadServedFromCache() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/theaters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/theaters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].screens", hasSize(2)));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void theaterCatalog_reflectsNewScreen() throws Exception {
+        mockMvc.perform(get("/api/theaters")).andExpect(status().isOk());
+        Theater theater = theaterRepository.findAll().getFirst();
+
+        screenRepository.save(new Screen(theater, "Screen 3"));
+
+        mockMvc.perform(get("/api/theaters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + theater.getId() + "')].screens[*]", hasSize(3)));
+    }
+
+    @Test
+    void theaterCatalog_evictForcesReload() throws Exception {
+        mockMvc.perform(get("/api/theaters")).andExpect(status().isOk());
+
+        theaterService.evictCatalogCache();
+        Statistics statistics = statistics();
+        mockMvc.perform(get("/api/theaters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void titleSearch_ranksTitlesStartingWithQueryFirst() throws Exception {
+        movieRepository.save(new Movie("The Matrix Reloaded"));
+        movieRepository.save(new Movie("Matrix"));
+        movieRepository.save(new Movie("Inception"));
+
+        mockMvc.perform(get("/api/movies").param("title", "matrix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title").value("Matrix"))
+                .andExpect(jsonPath("$[1].title").value("The Matrix Reloaded"));
+    }
+
+    @Test
+    void titleSearch_prefixModeMatchesWordStartsOnly() throws Exception {
+        movieService.createMovie(new CreateMovieRequest("The Matrix"));
+        movieService.createMovie(new CreateMovieRequest("Matilda"));
+        movieService.createMovie(new CreateMovieRequest("Automata"));
+
+        mockMvc.perform(get("/api/movies").param("title", "mat").param("prefix", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title").value("Matilda"))
+                .andExpect(jsonPath("$[1].title").value("The Matrix"));
+    }
+
+    @Test
+    void titleSearch_prefixModeServedFromIndexWithoutQueries() throws Exception {
+        movieService.createMovie(new CreateMovieRequest("Matilda"));
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/api/movies").param("title", "mat").param("prefix", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void titleSearch_prefixModeFollowsRenamesAndDeletes() throws Exception {
+        MovieDto alien = movieService.createMovie(new CreateMovieRequest("Alien"));
+        MovieDto heat = movieService.createMovie(new CreateMovieRequest("Heat"));
+
+        movieService.updateMovie(alien.id(), new UpdateMovieRequest("Arrival"));
+        movieService.deleteMovie(heat.id());
+
+        mockMvc.perform(get("/api/movies").param("title", "ali").param("prefix", "true"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/movies").param("title", "arr").param("prefix", "true"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(alien.id().toString()));
+        mockMvc.perform(get("/api/movies").param("title", "heat").param("prefix", "true"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void titleSearch_respectsLimit() throws Exception {
+        mockMvc.perform(get("/api/movies").param("title", "movie").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void titleSearch_treatsWildcardsLiterally() throws Exception {
+        movieRepository.save(new Movie("100% Wolf"));
+
+        mockMvc.perform(get("/api/movies").param("title", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("100% Wolf"));
+
+        mockMvc.perform(get("/api/movies").param("title", "_"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private List<String> walk(String path, int pageSize) throws Exception {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page(path, pageSize, cursor);
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(pageSize);
+            page.get("items").forEach(item -> ids.add(item.get("id").asText()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private JsonNode page(String path, int pageSize, String cursor) throws Exception {
+        var request = get(path).param("pageSize", String.valueOf(pageSize));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private List<JsonNode> stream(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,194 @@
+package com.movieticket.integration;
+
+import com.movieticket.dto.BookingRequest;
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.exception.BookingTimeoutException;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.BookingService;
+import com.movieticket.service.ReservationWriter;
+import com.movieticket.service.SeatInventory;
+import com.movieticket.util.SeatMap;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "movieticket.bookings.group-commit.window=PT0.2S",
+        "movieticket.bookings.group-commit.max-batch=16",
+        "movieticket.bookings.group-commit.writers=1",
+        "movieticket.bookings.group-commit.timeout=PT1S"
+})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class GroupCommitIntegrationTest {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private ReservationWriter reservationWriter;
+
+    private Showtime evening;
+    private Showtime lateNight;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        evening = showtimeRepository.save(new Showtime(movie, screen, LocalDateTime.now().plusDays(1)));
+        lateNight = showtimeRepository.save(new Showtime(movie, screen, LocalDateTime.now().plusDays(1).plusHours(3)));
+    }
+
+    @Test
+    void concurrentBookings_acrossShowtimes_shareTransactions() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(new BookingRequest(evening.getId(), List.of("A" + i)));
+            requests.add(new BookingRequest(lateNight.getId(), List.of("B" + i, "C" + i)));
+        }
+        List<Future<ReservationDto>> results = bookConcurrently(requests);
+
+        for (int i = 0; i < results.size(); i++) {
+            ReservationDto reservation = results.get(i).get();
+            assertThat(reservation.showtimeId()).isEqualTo(requests.get(i).showtimeId());
+            assertThat(reservation.seatIds()).containsExactlyInAnyOrderElementsOf(requests.get(i).seatIds());
+        }
+        assertThat(reservationRepository.count()).isEqualTo(16);
+        assertThat(showtimeRepository.findById(evening.getId()).orElseThrow().getSeatsSold()).isEqualTo(8);
+        assertThat(showtimeRepository.findById(lateNight.getId()).orElseThrow().getSeatsSold()).isEqualTo(16);
+        assertThat(statistics.getTransactionCount())
+                .as("16 bookings should be committed in a few group transactions")
+                .isLessThan(8);
+    }
+
+    @Test
+    void failingBooking_failsOnlyItsOwnCaller() throws Exception {
+        bookingService.createBooking(new BookingRequest(evening.getId(), List.of("A0")));
+        // The inventory forgets the seat, so the next booking for it only fails on the unique constraint
+        seatInventory.release(evening.getId(), SeatMap.of(List.of("A0")));
+
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(evening.getId(), List.of("A1")),
+                new BookingRequest(evening.getId(), List.of("A0")),
+                new BookingRequest(lateNight.getId(), List.of("A0")),
+                new BookingRequest(evening.getId(), List.of("A2")));
+        List<Future<ReservationDto>> results = bookConcurrently(requests);
+
+        assertThat(results.get(0).get().seatIds()).containsExactly("A1");
+        assertThatThrownBy(() -> results.get(1).get())
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(results.get(2).get().seatIds()).containsExactly("A0");
+        assertThat(results.get(3).get().seatIds()).containsExactly("A2");
+
+        assertThat(reservationRepository.count()).isEqualTo(4);
+        // The seat the inventory forgot is taken again from the table rather than released
+        assertThat(seatInventory.snapshot(evening.getId()).taken().seatIds()).containsExactly("A0", "A1", "A2");
+    }
+
+    @Test
+    void errorInWriter_failsItsGroupAndWriterKeepsGoing() {
+        doThrow(new AssertionError("simulated")).doCallRealMethod().when(reservationWriter).write(anyList());
+
+        assertThatThrownBy(() -> bookingService.createBooking(new BookingRequest(evening.getId(), List.of("A1"))))
+                .isInstanceOf(AssertionError.class);
+        assertThat(seatInventory.snapshot(evening.getId()).taken().isEmpty()).isTrue();
+
+        ReservationDto retried = bookingService.createBooking(new BookingRequest(evening.getId(), List.of("A1")));
+        assertThat(retried.seatIds()).containsExactly("A1");
+    }
+
+    @Test
+    void bookingNotTakenInTime_isWithdrawnAndNeverWritten() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            Thread.sleep(2500);
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(reservationWriter).write(anyList());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ReservationDto> slow = executor.submit(() ->
+                    bookingService.createBooking(new BookingRequest(evening.getId(), List.of("A1"))));
+            writing.await();
+
+            // The only writer is busy past the timeout
+            assertThatThrownBy(() -> bookingService.createBooking(new BookingRequest(evening.getId(), List.of("A2"))))
+                    .isInstanceOf(BookingTimeoutException.class);
+            // Taken before its deadline, so its caller waits for the commit
+            assertThat(slow.get().seatIds()).containsExactly("A1");
+        }
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+        assertThat(seatInventory.snapshot(evening.getId()).taken().seatIds()).containsExactly("A1");
+    }
+
+    private List<Future<ReservationDto>> bookConcurrently(List<BookingRequest> requests) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ReservationDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BookingRequest request : requests) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return bookingService.createBooking(request);
+                }));
+            }
+            start.countDown();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,208 @@
+package com.movieticket.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.IdempotencyKeyRepository;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.IdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotentBookingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        showtime = showtimeRepository.save(new Showtime(movie, screen, LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    void retryWithSameKey_returnsOriginalReservation() throws Exception {
+        String first = confirmationId(book("retry-1", "\"A1\", \"A2\"").andExpect(status().isCreated()));
+
+        book("retry-1", "\"A2\", \"A1\"")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.confirmationId").value(first))
+                .andExpect(jsonPath("$.seatIds[0]").value("A1"))
+                .andExpect(jsonPath("$.seatIds[1]").value("A2"));
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+        assertThat(showtimeRepository.findById(showtime.getId()).orElseThrow().getSeatsSold()).isEqualTo(2);
+    }
+
+    @Test
+    void sameKeyForDifferentSeats_returns422() throws Exception {
+        book("reused", "\"C1\"").andExpect(status().isCreated());
+
+        book("reused", "\"C2\"")
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRetries_bookOnce() throws Exception {
+        int retries = 10;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(retries)) {
+            for (int i = 0; i < retries; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return confirmationId(book("storm", "\"D5\"").andExpect(status().isCreated()));
+                }));
+            }
+            start.countDown();
+        }
+
+        Set<String> confirmationIds = new HashSet<>();
+        for (Future<String> result : results) {
+            confirmationIds.add(result.get());
+        }
+        assertThat(confirmationIds).hasSize(1);
+        assertThat(reservationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedBooking_isNotRemembered() throws Exception {
+        book(null, "\"E1\"").andExpect(status().isCreated());
+        book("after-conflict", "\"E1\"").andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/bookings/{id}",
+                        reservationRepository.findAll().getFirst().getConfirmationId()))
+                .andExpect(status().isNoContent());
+
+        book("after-conflict", "\"E1\"").andExpect(status().isCreated());
+        assertThat(idempotencyKeyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void replayOfCancelledBooking_returns404() throws Exception {
+        String first = confirmationId(book("cancelled", "\"F1\"").andExpect(status().isCreated()));
+        mockMvc.perform(delete("/api/bookings/{id}", first)).andExpect(status().isNoContent());
+
+        book("cancelled", "\"F1\"").andExpect(status().isNotFound());
+    }
+
+    @Test
+    void invalidKey_returns400() throws Exception {
+        book(" ", "\"G1\"").andExpect(status().isBadRequest());
+        book("k".repeat(256), "\"G1\"").andExpect(status().isBadRequest());
+
+        assertThat(reservationRepository.count()).isZero();
+    }
+
+    @Test
+    void keyWithRespondAsync_returns400EveryTime() throws Exception {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("Prefer", "respond-async")
+                            .header("Idempotency-Key", "async-retry")
+                            .content("""
+                                    {"showtimeId": "%s", "seatIds": ["J1"]}
+                                    """.formatted(showtime.getId())))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.status").value(400));
+        }
+
+        assertThat(reservationRepository.count()).isZero();
+        book("async-retry", "\"J1\"").andExpect(status().isCreated());
+    }
+
+    @Test
+    void purgeExpired_removesOnlyOldKeys() throws Exception {
+        book("old", "\"H1\"").andExpect(status().isCreated());
+        book("new", "\"H2\"").andExpect(status().isCreated());
+        jdbcTemplate.update("update idempotency_keys set created_at = ? where idempotency_key = 'old'",
+                LocalDateTime.now().minusDays(2));
+
+        assertThat(idempotencyStore.purgeExpired()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.existsById("old")).isFalse();
+        assertThat(idempotencyKeyRepository.existsById("new")).isTrue();
+    }
+
+    private ResultActions book(String idempotencyKey, String seats) throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"showtimeId": "%s", "seatIds": [%s]}
+                        """.formatted(showtime.getId(), seats));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private static String confirmationId(ResultActions created) throws Exception {
+        return JsonPath.read(created.andReturn().getResponse().getContentAsString(), "$.confirmationId");
+    }
+}
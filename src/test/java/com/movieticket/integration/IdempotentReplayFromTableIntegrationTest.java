@@ -0,0 +1,106 @@
+package com.movieticket.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.IdempotencyKeyRepository;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A one-entry cache, so replays of all but the latest key go to the table
+@SpringBootTest(properties = "movieticket.bookings.idempotency.cache-size=1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotentReplayFromTableIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        showtime = showtimeRepository.save(new Showtime(movie, screen, LocalDateTime.now().plusDays(1)));
+    }
+
+    @Test
+    void retryAfterEviction_replayedFromTable() throws Exception {
+        String first = confirmationId(book("key-a", "\"B1\"").andExpect(status().isCreated()));
+        book("key-b", "\"B2\"").andExpect(status().isCreated());
+
+        book("key-a", "\"B1\"")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.confirmationId").value(first));
+
+        assertThat(reservationRepository.count()).isEqualTo(2);
+        assertThat(idempotencyKeyRepository.findById("key-a").orElseThrow()
+                .getConfirmationId().toString()).isEqualTo(first);
+    }
+
+    @Test
+    void replayOfEvictedCancelledBooking_returns404() throws Exception {
+        String first = confirmationId(book("cancelled", "\"F1\"").andExpect(status().isCreated()));
+        book("other", "\"F2\"").andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/bookings/{id}", first)).andExpect(status().isNoContent());
+
+        book("cancelled", "\"F1\"").andExpect(status().isNotFound());
+    }
+
+    private ResultActions book(String idempotencyKey, String seats) throws Exception {
+        return mockMvc.perform(post("/api/bookings")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"showtimeId": "%s", "seatIds": [%s]}
+                        """.formatted(showtime.getId(), seats)));
+    }
+
+    private static String confirmationId(ResultActions created) throws Exception {
+        return JsonPath.read(created.andReturn().getResponse().getContentAsString(), "$.confirmationId");
+    }
+}
@@ -0,0 +1,177 @@
+package com.movieticket.integration;
+
+import com.movieticket.dto.BookingRequest;
+import com.movieticket.dto.ReservationDto;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.CancelledSeat;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.PostgresReservationCancellation;
+import com.movieticket.repository.ReservationCancellation;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ReservedSeatRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the PostgreSQL cancellation statement against a real PostgreSQL, which
+ * the H2 test profile cannot stand in for. Skipped unless
+ * {@code MOVIETICKET_TEST_POSTGRES_URL} (and optionally
+ * {@code MOVIETICKET_TEST_POSTGRES_USER} / {@code MOVIETICKET_TEST_POSTGRES_PASSWORD})
+ * point at a scratch database; its tables are dropped and recreated.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@EnabledIfEnvironmentVariable(named = "MOVIETICKET_TEST_POSTGRES_URL", matches = ".+")
+class PostgresReservationCancellationIntegrationTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("MOVIETICKET_TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> env("MOVIETICKET_TEST_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> env("MOVIETICKET_TEST_POSTGRES_PASSWORD", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("movieticket.sql.vendor", () -> "postgresql");
+    }
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservedSeatRepository reservedSeatRepository;
+
+    @Autowired
+    private ReservationCancellation reservationCancellation;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Showtime evening;
+    private Showtime lateNight;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        evening = showtimeRepository.save(new Showtime(movie, screen, LocalDate.now().plusDays(7).atTime(19, 0)));
+        lateNight = showtimeRepository.save(new Showtime(movie, screen, LocalDate.now().plusDays(7).atTime(22, 0)));
+    }
+
+    @Test
+    void cancel_deletesSeatsAndReservationsAndDecrementsCounters() {
+        assertThat(reservationCancellation).isInstanceOf(PostgresReservationCancellation.class);
+        ReservationDto first = book(evening, "A1", "A2");
+        ReservationDto second = book(lateNight, "B1");
+        book(evening, "C1");
+
+        List<CancelledSeat> freed = bookingService.cancelBookings(
+                List.of(first.confirmationId(), second.confirmationId(), UUID.randomUUID()));
+
+        assertThat(freed).containsExactlyInAnyOrder(
+                new CancelledSeat(first.confirmationId(), evening.getId(), "A1"),
+                new CancelledSeat(first.confirmationId(), evening.getId(), "A2"),
+                new CancelledSeat(second.confirmationId(), lateNight.getId(), "B1"));
+        assertThat(reservationRepository.count()).isEqualTo(1);
+        assertThat(reservedSeatRepository.countByShowtimeId(evening.getId())).isEqualTo(1);
+        assertThat(reservedSeatRepository.countByShowtimeId(lateNight.getId())).isZero();
+        assertThat(showtimeRepository.findById(evening.getId()).orElseThrow().getSeatsSold()).isEqualTo(1);
+        assertThat(showtimeRepository.findById(lateNight.getId()).orElseThrow().getSeatsSold()).isZero();
+    }
+
+    @Test
+    void concurrentCancelOfSameReservation_freesSeatsOnce() throws Exception {
+        ReservationDto reservation = book(evening, "D1", "D2");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstCancelled = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        // The first cancellation holds its row locks until the second is waiting on them
+        CompletableFuture<List<CancelledSeat>> first = CompletableFuture.supplyAsync(() ->
+                transaction.execute(status -> {
+                    List<CancelledSeat> freed = reservationCancellation.cancel(List.of(reservation.confirmationId()));
+                    firstCancelled.countDown();
+                    await(secondStarted);
+                    sleep();
+                    return freed;
+                }));
+        await(firstCancelled);
+        CompletableFuture<List<CancelledSeat>> second = CompletableFuture.supplyAsync(() ->
+                transaction.execute(status -> {
+                    secondStarted.countDown();
+                    return reservationCancellation.cancel(List.of(reservation.confirmationId()));
+                }));
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(2);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEmpty();
+        assertThat(showtimeRepository.findById(evening.getId()).orElseThrow().getSeatsSold()).isZero();
+    }
+
+    private ReservationDto book(Showtime showtime, String... seatIds) {
+        return bookingService.createBooking(new BookingRequest(showtime.getId(), List.of(seatIds)));
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null ? fallback : value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
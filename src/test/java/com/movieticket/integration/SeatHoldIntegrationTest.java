@@ -0,0 +1,191 @@
+package com.movieticket.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.SeatHoldService;
+import com.movieticket.util.SeatLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"movieticket.holds.ttl=PT1S", "movieticket.holds.max-per-showtime=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SeatHoldIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        showtime = showtimeRepository.save(
+                new Showtime(movie, screen, LocalDate.now().plusDays(7).atTime(19, 0)));
+    }
+
+    @Test
+    void hold_hidesSeatsFromListingAndBookings() throws Exception {
+        hold("A1", "A2")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.holdId").exists())
+                .andExpect(jsonPath("$.seatIds", contains("A1", "A2")))
+                .andExpect(jsonPath("$.expiresAt").exists());
+
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", showtime.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS - 2))
+                .andExpect(jsonPath("$.availableSeats", not(hasItem("A1"))));
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(seatsJson("A2", "A3")))
+                .andExpect(status().isConflict());
+        hold("A2").andExpect(status().isConflict());
+    }
+
+    @Test
+    void confirm_turnsHoldIntoReservation() throws Exception {
+        UUID holdId = holdId(hold("B1", "B2"));
+
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", holdId))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.confirmationId").exists())
+                .andExpect(jsonPath("$.seatIds", contains("B1", "B2")));
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+        assertThat(seatHoldService.activeHolds()).isZero();
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", holdId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", showtime.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS - 2));
+    }
+
+    @Test
+    void release_freesSeats() throws Exception {
+        UUID holdId = holdId(hold("C1"));
+
+        mockMvc.perform(delete("/api/holds/{holdId}", holdId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", showtime.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS));
+        mockMvc.perform(delete("/api/holds/{holdId}", holdId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void expiredHold_freesSeatsAndCannotBeConfirmed() throws Exception {
+        UUID holdId = holdId(hold("D1"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (seatHoldService.activeHolds() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(seatHoldService.activeHolds()).isZero();
+        mockMvc.perform(post("/api/holds/{holdId}/confirm", holdId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats", showtime.getId()))
+                .andExpect(jsonPath("$.availableCount").value(SeatLayout.TOTAL_SEATS));
+        assertThat(reservationRepository.count()).isZero();
+    }
+
+    @Test
+    void hold_beyondShowtimeLimit_returns429UntilOneIsReleased() throws Exception {
+        UUID first = holdId(hold("E1"));
+        hold("E2").andExpect(status().isCreated());
+
+        hold("E3").andExpect(status().isTooManyRequests());
+        hold("E2").andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(delete("/api/holds/{holdId}", first))
+                .andExpect(status().isNoContent());
+        hold("E3").andExpect(status().isCreated());
+        assertThat(seatHoldService.activeHolds()).isEqualTo(2);
+    }
+
+    @Test
+    void hold_invalidSeat_returns400() throws Exception {
+        hold("A99").andExpect(status().isBadRequest());
+        assertThat(seatHoldService.activeHolds()).isZero();
+    }
+
+    @Test
+    void hold_unknownShowtime_returns404() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"showtimeId": "%s", "seatIds": ["A1"]}
+                                """.formatted(UUID.randomUUID())))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions hold(String... seatIds) throws Exception {
+        return mockMvc.perform(post("/api/holds")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(seatsJson(seatIds)));
+    }
+
+    private UUID holdId(ResultActions result) throws Exception {
+        MvcResult created = result.andExpect(status().isCreated()).andReturn();
+        JsonNode body = objectMapper.readTree(created.getResponse().getContentAsString());
+        return UUID.fromString(body.get("holdId").asText());
+    }
+
+    private String seatsJson(String... seatIds) throws Exception {
+        return """
+                {"showtimeId": "%s", "seatIds": %s}
+                """.formatted(showtime.getId(), objectMapper.writeValueAsString(seatIds));
+    }
+}
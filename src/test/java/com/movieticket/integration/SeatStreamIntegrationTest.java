@@ -0,0 +1,190 @@
+package com.movieticket.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.util.SeatLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SeatStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    private Showtime showtime;
+
+    record Event(String name, JsonNode data) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        showtime = showtimeRepository.save(
+                new Showtime(movie, screen, LocalDate.now().plusDays(7).atTime(19, 0)));
+    }
+
+    @Test
+    void stream_sendsSnapshotThenTakenAndReleasedDeltas() throws Exception {
+        book("A1");
+        MockHttpServletResponse stream = subscribe();
+
+        List<Event> events = awaitEvents(stream, 1);
+        assertThat(events.get(0).name()).isEqualTo("snapshot");
+        assertThat(events.get(0).data().get("availableCount").asInt()).isEqualTo(SeatLayout.TOTAL_SEATS - 1);
+
+        UUID confirmationId = book("B1", "B2");
+        events = awaitEvents(stream, 2);
+        assertThat(events.get(1).name()).isEqualTo("taken");
+        assertThat(seatIds(events.get(1))).containsExactly("B1", "B2");
+
+        mockMvc.perform(delete("/api/bookings/{confirmationId}", confirmationId))
+                .andExpect(status().isNoContent());
+        events = awaitEvents(stream, 3);
+        assertThat(events.get(2).name()).isEqualTo("released");
+        assertThat(seatIds(events.get(2))).containsExactly("B1", "B2");
+    }
+
+    @Test
+    void stream_subscribersOfOneShowtimeAllReceiveEachDelta() throws Exception {
+        MockHttpServletResponse first = subscribe();
+        MockHttpServletResponse second = subscribe();
+        awaitEvents(first, 1);
+        awaitEvents(second, 1);
+
+        book("C3");
+
+        assertThat(seatIds(awaitEvents(first, 2).get(1))).containsExactly("C3");
+        assertThat(seatIds(awaitEvents(second, 2).get(1))).containsExactly("C3");
+    }
+
+    @Test
+    void stream_rejectedBookingPublishesNothing() throws Exception {
+        book("D4");
+        MockHttpServletResponse stream = subscribe();
+        awaitEvents(stream, 1);
+
+        mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson("D4")))
+                .andExpect(status().isConflict());
+        book("D5");
+
+        List<Event> events = awaitEvents(stream, 2);
+        assertThat(seatIds(events.get(1))).containsExactly("D5");
+    }
+
+    @Test
+    void stream_unknownShowtime_returns404() throws Exception {
+        mockMvc.perform(get("/api/showtimes/{showtimeId}/seats/stream", UUID.randomUUID())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletResponse subscribe() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/showtimes/{showtimeId}/seats/stream", showtime.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private UUID book(String... seatIds) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(seatIds)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString())
+                .get("confirmationId").asText());
+    }
+
+    private String bookingJson(String... seatIds) throws Exception {
+        return """
+                {"showtimeId": "%s", "seatIds": %s}
+                """.formatted(showtime.getId(), objectMapper.writeValueAsString(seatIds));
+    }
+
+    private List<Event> awaitEvents(MockHttpServletResponse stream, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<Event> events = parse(stream.getContentAsString());
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = parse(stream.getContentAsString());
+        }
+        assertThat(events).hasSize(count);
+        return events;
+    }
+
+    private List<Event> parse(String body) throws Exception {
+        List<Event> events = new ArrayList<>();
+        for (String block : body.split("\n\n")) {
+            String name = null;
+            StringBuilder data = new StringBuilder();
+            for (String line : block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring("data:".length()));
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, objectMapper.readTree(data.toString())));
+            }
+        }
+        return events;
+    }
+
+    private static List<String> seatIds(Event event) {
+        List<String> seatIds = new ArrayList<>();
+        event.data().get("seatIds").forEach(seat -> seatIds.add(seat.asText()));
+        return seatIds;
+    }
+}
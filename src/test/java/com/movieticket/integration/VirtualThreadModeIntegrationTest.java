@@ -0,0 +1,104 @@
+package com.movieticket.integration;
+
+import com.movieticket.dto.BookingRequest;
+import com.movieticket.entity.Movie;
+import com.movieticket.entity.Screen;
+import com.movieticket.entity.Showtime;
+import com.movieticket.entity.Theater;
+import com.movieticket.repository.MovieRepository;
+import com.movieticket.repository.ReservationRepository;
+import com.movieticket.repository.ScreenRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.TheaterRepository;
+import com.movieticket.service.BookingService;
+import com.movieticket.util.GatedDataSource;
+import com.movieticket.util.SeatLayout;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@DirtiesContext
+class VirtualThreadModeIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void dataSource_isGatedToPoolSizeWithMetrics() throws Exception {
+        assertThat(dataSource).isInstanceOf(GatedDataSource.class);
+        GatedDataSource gated = (GatedDataSource) dataSource;
+        int poolSize = gated.unwrap(HikariDataSource.class).getMaximumPoolSize();
+
+        assertThat(gated.availablePermits()).isEqualTo(poolSize);
+        assertThat(meterRegistry.find("jdbc.gate.waiting").gauge()).isNotNull();
+        assertThat(meterRegistry.find("jdbc.gate.available").gauge()).isNotNull();
+        assertThat(meterRegistry.find("jvm.threads.virtual.pinned").timer()).isNotNull();
+    }
+
+    @Test
+    void manyConcurrentBookingsOnVirtualThreads_allAdmittedThroughGate() throws Exception {
+        Movie movie = movieRepository.save(new Movie("The Matrix"));
+        Theater theater = theaterRepository.save(new Theater("AMC Empire 25"));
+        Screen screen = screenRepository.save(new Screen(theater, "Screen 1"));
+        Showtime showtime = showtimeRepository.save(
+                new Showtime(movie, screen, LocalDate.now().plusDays(7).atTime(19, 0)));
+
+        int bookings = 200;
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < bookings; i++) {
+                String seatId = SeatLayout.seatIdAt(i);
+                results.add(executor.submit(() -> bookingService.createBooking(
+                        new BookingRequest(showtime.getId(), List.of(seatId)))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        GatedDataSource gated = (GatedDataSource) dataSource;
+        assertThat(reservationRepository.count()).isEqualTo(bookings);
+        assertThat(gated.waiting()).isZero();
+        assertThat(gated.availablePermits())
+                .isEqualTo(gated.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        // Bookings are group-committed, so they share far fewer connections than there are bookings
+        assertThat(meterRegistry.find("jdbc.gate.wait").timer().count()).isPositive();
+    }
+}
@@ -0,0 +1,94 @@
+package com.movieticket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieticket.repository.ReservedSeatRepository;
+import com.movieticket.repository.ShowtimeRepository;
+import com.movieticket.repository.ShowtimeSaleState;
+import com.movieticket.util.SeatMap;
+import com.movieticket.util.StripedLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryTest {
+
+    private final ShowtimeRepository showtimeRepository = mock(ShowtimeRepository.class);
+    private final ReservedSeatRepository reservedSeatRepository = mock(ReservedSeatRepository.class);
+    private final SeatEventHub seatEventHub = spy(new SeatEventHub(new ObjectMapper(), new SimpleMeterRegistry(), 16));
+    private final SeatInventory seatInventory = new SeatInventory(
+            showtimeRepository, reservedSeatRepository, seatEventHub, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        when(showtimeRepository.findSaleStateById(any())).thenAnswer(invocation -> Optional.of(
+                new ShowtimeSaleState(invocation.getArgument(0), LocalDateTime.now().plusDays(1), false)));
+        when(reservedSeatRepository.findSeatIdsByShowtimeId(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void claimOnAnotherStripe_completesWhileAShowtimesStripeIsHeld() throws Exception {
+        UUID held = UUID.randomUUID();
+        UUID other = idOnAnotherStripe(held);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch letGo = new CountDownLatch(1);
+        // Publishing runs under the showtime's stripe, so this claim holds it until let go
+        doAnswer(invocation -> {
+            holding.countDown();
+            letGo.await();
+            return invocation.callRealMethod();
+        }).when(seatEventHub).seatsTaken(eq(held), any());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            CompletableFuture<List<String>> holder = CompletableFuture.supplyAsync(
+                    () -> seatInventory.claim(held, SeatMap.of(List.of("A1"))), executor);
+            assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<List<String>> sameShowtime = CompletableFuture.supplyAsync(
+                    () -> seatInventory.claim(held, SeatMap.of(List.of("A2"))), executor);
+            try {
+                List<String> otherTaken = CompletableFuture.supplyAsync(
+                        () -> seatInventory.claim(other, SeatMap.of(List.of("A1"))), executor)
+                        .get(5, TimeUnit.SECONDS);
+
+                assertThat(otherTaken).isEmpty();
+                assertThat(sameShowtime).isNotDone();
+            } finally {
+                letGo.countDown();
+            }
+            assertThat(holder.get(5, TimeUnit.SECONDS)).isEmpty();
+            assertThat(sameShowtime.get(5, TimeUnit.SECONDS)).isEmpty();
+        }
+        assertThat(seatInventory.snapshot(held).taken().seatIds()).containsExactly("A1", "A2");
+        assertThat(seatInventory.snapshot(other).taken().seatIds()).containsExactly("A1");
+    }
+
+    /**
+     * An id whose stripe differs from {@code id}'s in the lowest bit, and so
+     * under any power-of-two stripe count of two or more.
+     */
+    private static UUID idOnAnotherStripe(UUID id) {
+        StripedLocks twoStripes = new StripedLocks(2);
+        UUID other;
+        do {
+            other = UUID.randomUUID();
+        } while (twoStripes.stripeOf(other) == twoStripes.stripeOf(id));
+        return other;
+    }
+}
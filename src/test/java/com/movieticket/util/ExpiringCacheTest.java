@@ -0,0 +1,117 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void putAndGet_returnsValueUntilRemoved() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.remove("a")).isEqualTo(1);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void entries_expireAfterTtl() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofNanos(100), now::get);
+        cache.put("a", 1);
+        now.set(99);
+        assertThat(cache.get("a")).isEqualTo(1);
+
+        now.set(100);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void overCapacity_evictsOldestFirst() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void replacedEntry_isNotEvictedByItsOldPosition() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("a", 10);
+        cache.put("c", 3);
+
+        assertThat(cache.get("a")).isEqualTo(10);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+    }
+
+    @Test
+    void removesAndReplacesBelowCapacity_doNotGrowTheOrder() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(1_000, Duration.ofHours(24), now::get);
+        cache.put(-1, -1);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+            cache.put(i, i + 1);
+            cache.remove(i);
+        }
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.orderLength()).isLessThanOrEqualTo(3);
+        assertThat(cache.get(-1)).isEqualTo(-1);
+    }
+
+    @Test
+    void zeroCapacity_keepsNothing() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(0, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void concurrentWriters_sizeSettlesAtCapacity() throws Exception {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100, Duration.ofMinutes(1));
+        List<Future<?>> writers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        cache.put(offset + i, i);
+                        if (i % 3 == 0) {
+                            cache.remove(offset + i);
+                        }
+                    }
+                }));
+            }
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        cache.put(-1, -1);
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get(-1)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GatedDataSourceTest {
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    @Test
+    void connectionsBeyondPermits_waitForAClose() throws Exception {
+        GatedDataSource gated = new GatedDataSource(pool(), 2, Duration.ofSeconds(5), nanos -> { });
+        Connection first = gated.getConnection();
+        gated.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Connection> third = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return gated.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (gated.waiting() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(gated.waiting()).isEqualTo(1);
+            assertThat(third).isNotDone();
+
+            first.close();
+            assertThat(third.get(5, TimeUnit.SECONDS)).isNotNull();
+        }
+        assertThat(gated.waiting()).isZero();
+        assertThat(open.get()).isEqualTo(2);
+    }
+
+    @Test
+    void noPermitWithinTimeout_failsWithTransientException() throws Exception {
+        GatedDataSource gated = new GatedDataSource(pool(), 1, Duration.ofMillis(50), nanos -> { });
+        gated.getConnection();
+
+        assertThatThrownBy(gated::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(gated.availablePermits()).isZero();
+    }
+
+    @Test
+    void closingTwice_returnsOnePermit() throws Exception {
+        GatedDataSource gated = new GatedDataSource(pool(), 2, Duration.ofSeconds(1), nanos -> { });
+        Connection connection = gated.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertThat(gated.availablePermits()).isEqualTo(2);
+        assertThat(connection).isEqualTo(connection);
+        assertThat(connection.isClosed()).isTrue();
+    }
+
+    @Test
+    void failedCheckout_returnsPermit() {
+        failures.set(1);
+        GatedDataSource gated = new GatedDataSource(pool(), 1, Duration.ofSeconds(1), nanos -> { });
+
+        assertThatThrownBy(gated::getConnection).isInstanceOf(SQLException.class);
+        assertThat(gated.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void admittedCallers_reportTheirWait() throws Exception {
+        AtomicLong waited = new AtomicLong(-1);
+        GatedDataSource gated = new GatedDataSource(pool(), 1, Duration.ofSeconds(1), waited::set);
+
+        gated.getConnection().close();
+
+        assertThat(waited.get()).isGreaterThanOrEqualTo(0);
+    }
+
+    /**
+     * A data source handing out stub connections that track whether they are open.
+     */
+    private DataSource pool() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getConnection")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        throw new SQLException("pool exhausted");
+                    }
+                    open.incrementAndGet();
+                    return connection();
+                });
+    }
+
+    private Connection connection() {
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        if (!closed[0]) {
+                            closed[0] = true;
+                            open.decrementAndGet();
+                        }
+                        yield null;
+                    }
+                    case "isClosed" -> closed[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,79 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex();
+
+    @Test
+    void search_matchesWordStartsCaseInsensitively() {
+        index.put(UUID.randomUUID(), "The Matrix");
+        index.put(UUID.randomUUID(), "Automata");
+
+        assertThat(titles(index.search("MAT", 10))).containsExactly("The Matrix");
+    }
+
+    @Test
+    void search_ranksTitleStartFirstThenShorterTitles() {
+        index.put(UUID.randomUUID(), "The Matrix Reloaded");
+        index.put(UUID.randomUUID(), "The Matrix");
+        index.put(UUID.randomUUID(), "Matrix Resurrections");
+
+        assertThat(titles(index.search("matrix", 10)))
+                .containsExactly("Matrix Resurrections", "The Matrix", "The Matrix Reloaded");
+    }
+
+    @Test
+    void search_multiWordQueryMatchesPhrase() {
+        index.put(UUID.randomUUID(), "The Matrix");
+        index.put(UUID.randomUUID(), "The Mummy");
+
+        assertThat(titles(index.search("the  mat", 10))).containsExactly("The Matrix");
+    }
+
+    @Test
+    void search_returnsTopK() {
+        for (int i = 0; i < 50; i++) {
+            index.put(UUID.randomUUID(), "Movie " + i);
+        }
+
+        assertThat(titles(index.search("movie", 3))).containsExactly("Movie 0", "Movie 1", "Movie 2");
+    }
+
+    @Test
+    void put_existingId_replacesTitle() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "Alien");
+        index.put(id, "Aliens");
+
+        assertThat(index.search("alien", 10)).containsExactly(new PrefixIndex.Match(id, "Aliens"));
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_dropsTitleFromResults() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "Alien");
+        index.remove(id);
+
+        assertThat(index.search("alien", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void search_blankQuery_returnsNothing() {
+        index.put(UUID.randomUUID(), "Alien");
+
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    private static List<String> titles(List<PrefixIndex.Match> matches) {
+        return matches.stream().map(PrefixIndex.Match::title).toList();
+    }
+}
@@ -62,4 +62,37 @@ class SeatLayoutTest {
     void isValidSeatId_emptyString_returnsFalse() {
         assertThat(SeatLayout.isValidSeatId("")).isFalse();
     }
+
+    @Test
+    void indexOf_mapsFirstAndLastSeats() {
+        assertThat(SeatLayout.indexOf("A0")).isZero();
+        assertThat(SeatLayout.indexOf("A20")).isEqualTo(20);
+        assertThat(SeatLayout.indexOf("B0")).isEqualTo(21);
+        assertThat(SeatLayout.indexOf("Z20")).isEqualTo(SeatLayout.TOTAL_SEATS - 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"A21", "A99", "ZZ1", "a5", "5A", "AA0", "[0", "A-1", " ", "AB"})
+    void indexOf_invalidSeats_returnsMinusOne(String seatId) {
+        assertThat(SeatLayout.indexOf(seatId)).isEqualTo(-1);
+    }
+
+    @Test
+    void seatIdAt_isInverseOfIndexOf() {
+        for (String seatId : SeatLayout.allSeatIds()) {
+            assertThat(SeatLayout.seatIdAt(SeatLayout.indexOf(seatId))).isEqualTo(seatId);
+        }
+    }
+
+    @Test
+    void indexOf_acceptsAnyCharSequence() {
+        assertThat(SeatLayout.indexOf(new StringBuilder("B15"))).isEqualTo(SeatLayout.indexOf("B15"));
+    }
+
+    @Test
+    void rowOfAndNumberOf_unpackIndex() {
+        int index = SeatLayout.indexOf("M10");
+        assertThat(SeatLayout.rowOf(index)).isEqualTo('M');
+        assertThat(SeatLayout.numberOf(index)).isEqualTo(10);
+    }
 }
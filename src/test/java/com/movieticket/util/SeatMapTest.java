@@ -0,0 +1,126 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatMapTest {
+
+    @Test
+    void newMap_isEmpty() {
+        SeatMap map = new SeatMap();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.size()).isZero();
+        assertThat(map.seatIds()).isEmpty();
+    }
+
+    @Test
+    void of_ignoresInvalidSeatIdsAndCollapsesDuplicates() {
+        SeatMap map = SeatMap.of(List.of("A5", "A5", "A99", "Z20"));
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.seatIds()).containsExactly("A5", "Z20");
+    }
+
+    @Test
+    void seatIds_areReturnedInLayoutOrder() {
+        SeatMap map = SeatMap.of(List.of("B0", "A20", "A3"));
+        assertThat(map.seatIds()).containsExactly("A3", "A20", "B0");
+    }
+
+    @Test
+    void addAndRemove_updateMembership() {
+        SeatMap map = new SeatMap();
+        int index = SeatLayout.indexOf("M10");
+
+        assertThat(map.add(index)).isTrue();
+        assertThat(map.add(index)).isFalse();
+        assertThat(map.contains(index)).isTrue();
+
+        map.remove(index);
+        assertThat(map.contains(index)).isFalse();
+    }
+
+    @Test
+    void complement_ofEmptyMap_coversWholeLayout() {
+        SeatMap all = new SeatMap().complement();
+        assertThat(all.size()).isEqualTo(SeatLayout.TOTAL_SEATS);
+        assertThat(all.seatIds()).isEqualTo(SeatLayout.allSeatIds());
+    }
+
+    @Test
+    void complement_excludesMembers() {
+        SeatMap taken = SeatMap.of(List.of("A0", "Z20"));
+        SeatMap available = taken.complement();
+
+        assertThat(available.size()).isEqualTo(SeatLayout.TOTAL_SEATS - 2);
+        assertThat(available.seatIds()).doesNotContain("A0", "Z20");
+    }
+
+    @Test
+    void intersection_returnsCommonSeats() {
+        SeatMap taken = SeatMap.of(List.of("A5", "A6"));
+        SeatMap requested = SeatMap.of(List.of("A6", "A7"));
+
+        assertThat(taken.intersects(requested)).isTrue();
+        assertThat(taken.intersection(requested).seatIds()).containsExactly("A6");
+        assertThat(taken.intersects(SeatMap.of(List.of("A7")))).isFalse();
+    }
+
+    @Test
+    void addAllAndRemoveAll_mergeAndSubtract() {
+        SeatMap map = SeatMap.of(List.of("A1"));
+        map.addAll(SeatMap.of(List.of("B2", "C3")));
+        assertThat(map.seatIds()).containsExactly("A1", "B2", "C3");
+
+        map.removeAll(SeatMap.of(List.of("A1", "C3")));
+        assertThat(map.seatIds()).containsExactly("B2");
+    }
+
+    @Test
+    void copy_isIndependent() {
+        SeatMap original = SeatMap.of(List.of("A1"));
+        SeatMap copy = original.copy();
+        copy.add(SeatLayout.indexOf("A2"));
+
+        assertThat(original.seatIds()).containsExactly("A1");
+        assertThat(copy).isNotEqualTo(original);
+    }
+
+    @Test
+    void toBitmap_setsBitsInLayoutOrderMostSignificantFirst() {
+        byte[] bitmap = SeatMap.of(List.of("A0", "A9", "Z20")).toBitmap();
+
+        assertThat(bitmap).hasSize((SeatLayout.TOTAL_SEATS + 7) / 8);
+        assertThat(bitmap[0]).isEqualTo((byte) 0x80);
+        assertThat(bitmap[1]).isEqualTo((byte) 0x40);
+        int last = SeatLayout.TOTAL_SEATS - 1;
+        assertThat(bitmap[last / 8]).isEqualTo((byte) (0x80 >>> (last % 8)));
+    }
+
+    @Test
+    void toBitmap_fullMapLeavesTrailingBitsClear() {
+        byte[] bitmap = new SeatMap().complement().toBitmap();
+
+        int usedBits = SeatLayout.TOTAL_SEATS % 8;
+        assertThat(bitmap[bitmap.length - 1]).isEqualTo((byte) (0xFF << (8 - usedBits)));
+    }
+
+    @Test
+    void ranges_splitRunsAtGapsAndRowEnds() {
+        SeatMap map = SeatMap.of(List.of("A0", "A1", "A2", "A7", "A19", "A20", "B0", "B1"));
+
+        assertThat(map.ranges()).containsExactly("A0-A2", "A7", "A19-A20", "B0-B1");
+    }
+
+    @Test
+    void ranges_fullLayoutIsOneRunPerRow() {
+        List<String> ranges = new SeatMap().complement().ranges();
+
+        assertThat(ranges).hasSize(SeatLayout.TOTAL_ROWS);
+        assertThat(ranges.getFirst()).isEqualTo("A0-A20");
+        assertThat(ranges.getLast()).isEqualTo("Z0-Z20");
+        assertThat(new SeatMap().ranges()).isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatSelectionTest {
+
+    @Test
+    void parse_validSeats_decodesIntoSeatMap() {
+        SeatSelection selection = SeatSelection.parse(List.of("A5", "B0", "Z20"));
+
+        assertThat(selection.isValid()).isTrue();
+        assertThat(selection.seats().seatIds()).containsExactly("A5", "B0", "Z20");
+        assertThat(selection.invalidSeatIds()).isEmpty();
+    }
+
+    @Test
+    void parse_invalidSeats_collectedInRequestOrder() {
+        SeatSelection selection = SeatSelection.parse(List.of("A99", "A5", "a5", "A+5"));
+
+        assertThat(selection.isValid()).isFalse();
+        assertThat(selection.invalidSeatIds()).containsExactly("A99", "a5", "A+5");
+        assertThat(selection.seats().seatIds()).containsExactly("A5");
+    }
+
+    @Test
+    void parse_duplicateSeats_flagged() {
+        SeatSelection selection = SeatSelection.parse(List.of("A5", "A6", "A5"));
+
+        assertThat(selection.isValid()).isFalse();
+        assertThat(selection.hasDuplicates()).isTrue();
+        assertThat(selection.seats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void parse_leadingZero_isSameSeat() {
+        SeatSelection selection = SeatSelection.parse(List.of("A5", "A05"));
+
+        assertThat(selection.hasDuplicates()).isTrue();
+    }
+}
@@ -0,0 +1,65 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLocksTest {
+
+    @Test
+    void stripes_areRoundedUpToPowerOfTwo() {
+        assertThat(new StripedLocks(1).stripes()).isEqualTo(1);
+        assertThat(new StripedLocks(100).stripes()).isEqualTo(128);
+        assertThat(new StripedLocks(256).stripes()).isEqualTo(256);
+    }
+
+    @Test
+    void equalKeys_shareALock() {
+        StripedLocks locks = new StripedLocks(64);
+        UUID key = UUID.randomUUID();
+        assertThat(locks.lockFor(key)).isSameAs(locks.lockFor(UUID.fromString(key.toString())));
+    }
+
+    @Test
+    void keysOnDifferentStripes_doNotBlockEachOther() throws Exception {
+        StripedLocks locks = new StripedLocks(64);
+        List<UUID> keys = keysOnDistinctStripes(locks, 2);
+
+        ReentrantLock first = locks.lockFor(keys.get(0));
+        first.lock();
+        try {
+            boolean acquired = CompletableFuture.supplyAsync(() -> {
+                ReentrantLock second = locks.lockFor(keys.get(1));
+                boolean locked = second.tryLock();
+                if (locked) {
+                    second.unlock();
+                }
+                return locked;
+            }).get(5, TimeUnit.SECONDS);
+            assertThat(acquired).isTrue();
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private static List<UUID> keysOnDistinctStripes(StripedLocks locks, int count) {
+        List<UUID> keys = new ArrayList<>();
+        boolean[] used = new boolean[locks.stripes()];
+        while (keys.size() < count) {
+            UUID key = UUID.randomUUID();
+            int stripe = locks.stripeOf(key);
+            if (!used[stripe]) {
+                used[stripe] = true;
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
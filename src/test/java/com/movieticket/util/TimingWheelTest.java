@@ -0,0 +1,77 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 8, 0);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void advance_firesTimeoutsOnceTheirDeadlineIsReached() {
+        wheel.schedule("a", 25 * MS);
+        wheel.schedule("b", 40 * MS);
+
+        wheel.advance(20 * MS, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(30 * MS, expired::add);
+        assertThat(expired).containsExactly("a");
+
+        wheel.advance(40 * MS, expired::add);
+        assertThat(expired).containsExactly("a", "b");
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void advance_deadlinesBeyondOneRevolutionWaitTheirRounds() {
+        // 8 buckets of 10ms: 250ms is three revolutions out
+        wheel.schedule("far", 250 * MS);
+        wheel.schedule("near", 10 * MS);
+
+        wheel.advance(240 * MS, expired::add);
+        assertThat(expired).containsExactly("near");
+
+        wheel.advance(250 * MS, expired::add);
+        assertThat(expired).containsExactly("near", "far");
+    }
+
+    @Test
+    void cancelledTimeouts_neverFire() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 10 * MS);
+        timeout.cancel();
+
+        wheel.advance(100 * MS, expired::add);
+
+        assertThat(expired).isEmpty();
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void pastDeadline_firesOnNextTick() {
+        wheel.advance(100 * MS, expired::add);
+        wheel.schedule("late", 50 * MS);
+
+        wheel.advance(110 * MS, expired::add);
+
+        assertThat(expired).containsExactly("late");
+    }
+
+    @Test
+    void advance_catchesUpAfterAPause() {
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule("t" + i, i * 10 * MS);
+        }
+
+        assertThat(wheel.advance(1000 * MS, expired::add)).isEqualTo(20);
+        assertThat(expired).hasSize(20);
+    }
+}
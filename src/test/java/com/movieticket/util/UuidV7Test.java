@@ -0,0 +1,85 @@
+package com.movieticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7Test {
+
+    @Test
+    void next_isVersion7WithRfcVariant() {
+        for (UUID uuid : List.of(UuidV7.next(), UuidV7.nextUnguessable())) {
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void timestamp_isCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        // Ids may run slightly ahead of the clock after a burst, never behind it
+        assertThat(UuidV7.timestampOf(uuid)).isBetween(before, after + 1000);
+    }
+
+    @Test
+    void ids_sortInGenerationOrder_asBytes() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Interleaved, so both kinds share one sequence
+            ids.add((i % 2 == 0 ? UuidV7.next() : UuidV7.nextUnguessable()).toString());
+        }
+        // The canonical string sorts like the 16 bytes a database index compares
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void concurrentGeneration_idsAreUnique() throws Exception {
+        assertUniqueAcrossThreads(UuidV7::next);
+        assertUniqueAcrossThreads(UuidV7::nextUnguessable);
+    }
+
+    @Test
+    void timestampOf_rejectsOtherVersions() {
+        assertThatThrownBy(() -> UuidV7.timestampOf(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertUniqueAcrossThreads(Supplier<UUID> generator) throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        List<Future<List<UUID>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.get());
+                    }
+                    return ids;
+                }));
+            }
+        }
+        Set<UUID> all = new HashSet<>();
+        for (Future<List<UUID>> result : results) {
+            List<UUID> ids = result.get();
+            // Each thread sees its own ids in increasing order
+            assertThat(ids.stream().map(UUID::toString).toList()).isSorted();
+            all.addAll(ids);
+        }
+        assertThat(all).hasSize(threads * perThread);
+    }
+}